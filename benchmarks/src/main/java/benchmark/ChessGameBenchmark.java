@@ -0,0 +1,98 @@
+package benchmark;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the ChessGame calls the server makes on every move.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+
+    @Param
+    public Fixture fixture;
+
+    private ChessGame game;
+    private List<ChessPosition> ownPieces;
+
+    @Setup
+    public void setUp() {
+        game = fixture.game();
+        ownPieces = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    ownPieces.add(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * validMoves for every piece of the side to move, the way a client highlights moves
+     * after a new position arrives; setBoard drops the moves kept from the last call,
+     * so the first piece pays for generating them
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        game.setBoard(game.getBoard());
+        for (ChessPosition position : ownPieces) {
+            blackhole.consume(game.validMoves(position));
+        }
+    }
+
+    /**
+     * validMoves for every piece of a position already asked about, answered
+     * from the moves kept by the last call
+     */
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition position : ownPieces) {
+            blackhole.consume(game.validMoves(position));
+        }
+    }
+
+    /**
+     * makeMove on a fresh copy of the position; the copy is included, see {@link #copyBoard}
+     */
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        ChessGame copy = new ChessGame();
+        copy.setBoard(game.getBoard().copyBoard());
+        copy.setTeamTurn(game.getTeamTurn());
+        copy.makeMove(fixture.move());
+        return copy;
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public GameStatus gameStatus() {
+        return game.getGameStatus(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessBoard copyBoard() {
+        return game.getBoard().copyBoard();
+    }
+}
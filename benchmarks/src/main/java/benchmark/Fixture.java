@@ -0,0 +1,69 @@
+package benchmark;
+
+import chess.*;
+import passoff.chess.TestUtilities;
+
+/**
+ * Fixed positions the benchmarks run against, one for each phase of a game.
+ * Each comes with a legal move for the side to move so makeMove can be measured.
+ */
+public enum Fixture {
+    // Ruy Lopez after 1.e4 e5 2.Nf3 Nc6 3.Bb5
+    OPENING("""
+            |r| |b|q|k|b|n|r|
+            |p|p|p|p| |p|p|p|
+            | | |n| | | | | |
+            | |B| | |p| | | |
+            | | | | |P| | | |
+            | | | | | |N| | |
+            |P|P|P|P| |P|P|P|
+            |R|N|B|Q|K| | |R|
+            """, ChessGame.TeamColor.BLACK, new ChessMove(new ChessPosition(7, 1), new ChessPosition(6, 1), null)),
+    MIDDLEGAME("""
+            |r| | | | |r|k| |
+            | |p|p| |q|p|p|p|
+            |p| |n|p| |n| | |
+            | | |b| |p| |B| |
+            | | |B| |P| |b| |
+            |P| |N|P| |N| | |
+            | |P|P| |Q|P|P|P|
+            |R| | | | |R|K| |
+            """, ChessGame.TeamColor.WHITE, new ChessMove(new ChessPosition(3, 3), new ChessPosition(5, 4), null)),
+    ENDGAME("""
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """, ChessGame.TeamColor.WHITE, new ChessMove(new ChessPosition(4, 2), new ChessPosition(1, 2), null));
+
+    private final String boardText;
+    private final ChessGame.TeamColor teamTurn;
+    private final ChessMove move;
+
+    Fixture(String boardText, ChessGame.TeamColor teamTurn, ChessMove move) {
+        this.boardText = boardText;
+        this.teamTurn = teamTurn;
+        this.move = move;
+    }
+
+    /**
+     * @return a new game set up at this fixture's position
+     */
+    public ChessGame game() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(boardText));
+        game.setTeamTurn(teamTurn);
+        return game;
+    }
+
+    /**
+     * @return a legal move for the side to move in this position
+     */
+    public ChessMove move() {
+        return move;
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import com.google.gson.Gson;
+import model.GameData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson serialization of GameData, which is how games are stored and sent to clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GsonBenchmark {
+
+    @Param
+    public Fixture fixture;
+
+    private final Gson gson = new Gson();
+    private GameData gameData;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        gameData = new GameData(1, "white", "black", "benchmark", fixture.game());
+        json = gson.toJson(gameData);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(gameData);
+    }
+
+    @Benchmark
+    public GameData fromJson() {
+        return gson.fromJson(json, GameData.class);
+    }
+
+    @Benchmark
+    public GameData roundTrip() {
+        return gson.fromJson(gson.toJson(gameData), GameData.class);
+    }
+}
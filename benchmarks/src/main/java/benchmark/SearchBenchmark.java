@@ -0,0 +1,64 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ParallelSearch;
+import chess.SearchEngine;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search speed by thread count. Each operation is one fixed-time search, and
+ * the nodes counter gives the nodes per second searched across all threads,
+ * which is the number to compare between thread counts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final long SEARCH_MILLIS = 200;
+    private static final int TABLE_MEGABYTES = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param
+    public Fixture fixture;
+
+    private ChessGame game;
+    private ParallelSearch search;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        game = fixture.game();
+        search = new ParallelSearch(threads, new TranspositionTable(TABLE_MEGABYTES));
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchEngine.Result search(Counters counters) {
+        SearchEngine.Result result = search.search(game, SearchEngine.Limits.ofMillis(SEARCH_MILLIS));
+        counters.nodes += result.nodes();
+        return result;
+    }
+}
@@ -1,22 +1,30 @@
 import chess.*;
-import dataaccess.DataAccess;
+import dataaccess.CachingDataAccess;
 import dataaccess.DataAccessException;
+import dataaccess.DatabaseManager;
 import dataaccess.MySQLDataAccess;
 import server.Server;
+import server.StatsReporter;
 import service.GameService;
 import service.UserService;
 
+import java.time.Duration;
+
 public class Main {
     public static void main(String[] args) {
         var piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
         System.out.println("♕ 240 Chess Server: " + piece);
 
-        DataAccess dataAccess = null;
+        CachingDataAccess dataAccess = null;
         try {
-            dataAccess = new MySQLDataAccess();
+            dataAccess = new CachingDataAccess(new MySQLDataAccess());
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
+        new StatsReporter()
+                .add("connection pool", DatabaseManager::poolStats)
+                .add("auth cache", dataAccess::stats)
+                .start(Duration.ofMinutes(1));
 
         UserService userService = new UserService(dataAccess);
         GameService gameService = new GameService(dataAccess);
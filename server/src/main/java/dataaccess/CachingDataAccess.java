@@ -0,0 +1,249 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link DataAccess} that keeps recently checked auth tokens in memory in
+ * front of another DataAccess, so the auth check every authenticated request
+ * makes is usually a map lookup rather than a database round trip.
+ * <p>
+ * Tokens found are kept for a TTL and tokens not found for a much shorter one,
+ * so repeated bad tokens do not reach the database either. The cache holds a
+ * bounded number of tokens, dropping the least recently used. Logging out
+ * through {@link #deleteAuth} and {@link #clear} take effect at once; a token
+ * deleted straight in the database by something else is honored for at most
+ * the TTL. Every other method goes straight to the wrapped DataAccess.
+ */
+public class CachingDataAccess implements DataAccess {
+
+    public static final int DEFAULT_MAX_TOKENS = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(1);
+
+    /**
+     * @param hits         lookups answered from the cache, found or not
+     * @param misses       lookups that went to the wrapped DataAccess
+     * @param negativeHits hits for tokens cached as not found
+     * @param size         tokens in the cache
+     */
+    public record Stats(long hits, long misses, long negativeHits, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d negativeHits=%d size=%d hitRate=%.3f",
+                    hits, misses, negativeHits, size, hitRate());
+        }
+    }
+
+    /**
+     * A cached lookup: the auth found, or null if there was none. A pending
+     * entry holds a token's place while it is looked up; it is never a hit.
+     */
+    private record Entry(AuthData auth, long expiresAt, boolean pending) {
+        static Entry placeholder() {
+            return new Entry(null, 0, true);
+        }
+    }
+
+    private final DataAccess delegate;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final Map<String, Entry> auths;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+
+    public CachingDataAccess(DataAccess delegate) {
+        this(delegate, DEFAULT_MAX_TOKENS, DEFAULT_TTL, DEFAULT_NEGATIVE_TTL);
+    }
+
+    public CachingDataAccess(DataAccess delegate, int maxTokens, Duration ttl, Duration negativeTtl) {
+        this(delegate, maxTokens, ttl, negativeTtl, System::nanoTime);
+    }
+
+    CachingDataAccess(DataAccess delegate, int maxTokens, Duration ttl, Duration negativeTtl, LongSupplier clock) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be at least 1");
+        }
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.clock = clock;
+        this.auths = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxTokens;
+            }
+        };
+    }
+
+    public Stats stats() {
+        synchronized (auths) {
+            return new Stats(hits.get(), misses.get(), negativeHits.get(), auths.size());
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            delegate.clear();
+        } finally {
+            synchronized (auths) {
+                auths.clear();
+            }
+        }
+    }
+
+    @Override
+    public boolean createUser(UserData user) throws DataAccessException {
+        return delegate.createUser(user);
+    }
+
+    @Override
+    public UserData getUser(String username) throws DataAccessException {
+        return delegate.getUser(username);
+    }
+
+    @Override
+    public Integer createGame(GameData game) throws DataAccessException {
+        return delegate.createGame(game);
+    }
+
+    @Override
+    public GameData getGame(Integer id) throws DataAccessException {
+        return delegate.getGame(id);
+    }
+
+    @Override
+    public ArrayList<GameData> listGames() throws DataAccessException {
+        return delegate.listGames();
+    }
+
+    @Override
+    public GameData updateGame(GameData game) throws DataAccessException {
+        return delegate.updateGame(game);
+    }
+
+    @Override
+    public void appendMove(int gameID, ChessGame game, ChessMove move) throws DataAccessException {
+        delegate.appendMove(gameID, game, move);
+    }
+
+    @Override
+    public ArrayList<ChessMove> listMoves(int gameID, int afterPly) throws DataAccessException {
+        return delegate.listMoves(gameID, afterPly);
+    }
+
+    @Override
+    public boolean createAuth(AuthData auth) throws DataAccessException {
+        // drops a cached "not found" for the token, and the next check of it is a hit
+        Entry placeholder = reserve(auth.authToken());
+        boolean created;
+        try {
+            created = delegate.createAuth(auth);
+        } catch (DataAccessException | RuntimeException e) {
+            remember(auth.authToken(), placeholder, null, 0);
+            throw e;
+        }
+        remember(auth.authToken(), placeholder, auth, created ? ttlNanos : 0);
+        return created;
+    }
+
+    @Override
+    public AuthData getAuth(String auth) throws DataAccessException {
+        if (auth == null) {
+            return delegate.getAuth(null);
+        }
+        long now = clock.getAsLong();
+        Entry placeholder;
+        synchronized (auths) {
+            Entry entry = auths.get(auth);
+            if (entry != null && !entry.pending() && now - entry.expiresAt() < 0) {
+                hits.incrementAndGet();
+                if (entry.auth() == null) {
+                    negativeHits.incrementAndGet();
+                }
+                return entry.auth();
+            }
+            placeholder = Entry.placeholder();
+            auths.put(auth, placeholder);
+        }
+
+        misses.incrementAndGet();
+        AuthData found;
+        try {
+            found = delegate.getAuth(auth);
+        } catch (DataAccessException | RuntimeException e) {
+            remember(auth, placeholder, null, 0);
+            throw e;
+        }
+        remember(auth, placeholder, found, found == null ? negativeTtlNanos : ttlNanos);
+        return found;
+    }
+
+    @Override
+    public boolean deleteAuth(String auth) throws DataAccessException {
+        try {
+            return delegate.deleteAuth(auth);
+        } finally {
+            invalidate(auth);
+        }
+    }
+
+    /**
+     * Holds the token's place for a lookup about to start, dropping whatever
+     * was cached for it
+     */
+    private Entry reserve(String token) {
+        Entry placeholder = Entry.placeholder();
+        synchronized (auths) {
+            auths.put(token, placeholder);
+        }
+        return placeholder;
+    }
+
+    /**
+     * Caches a lookup in the place held for it, unless the token was
+     * invalidated, or looked up again, since the lookup started
+     *
+     * @param ttl how long to keep the result, or 0 to only give up the place
+     */
+    private void remember(String token, Entry placeholder, AuthData auth, long ttl) {
+        Entry entry = ttl > 0 ? new Entry(auth, clock.getAsLong() + ttl, false) : null;
+        synchronized (auths) {
+            if (auths.get(token) != placeholder) {
+                return;
+            }
+            if (entry == null) {
+                auths.remove(token);
+            } else {
+                auths.put(token, entry);
+            }
+        }
+    }
+
+    private void invalidate(String token) {
+        if (token == null) {
+            return;
+        }
+        synchronized (auths) {
+            auths.remove(token);
+        }
+    }
+}
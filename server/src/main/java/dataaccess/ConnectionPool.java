@@ -0,0 +1,535 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of database connections, so a request reuses an open
+ * connection instead of paying the TCP and MySQL handshake for a new one.
+ * <p>
+ * {@link #borrow} hands out a connection whose {@link Connection#close} gives
+ * it back to the pool, so callers keep using try-with-resources exactly as
+ * with unpooled connections. A connection idle for a while is checked with
+ * {@link Connection#isValid} before it is handed out again. A background task
+ * closes connections idle past the idle timeout, down to the minimum, and
+ * connections past their maximum lifetime, then tops the pool back up to the
+ * minimum.
+ * <p>
+ * Each connection also keeps a bounded LRU cache of prepared statements keyed
+ * by SQL text. Preparing a statement takes it from the cache when there, and
+ * closing it clears its parameters and puts it back instead of closing it, so
+ * the DAO's usual prepare-execute-close code stops paying to parse and plan
+ * the same SQL again. A statement whose limits, timeout or fetch settings
+ * were changed is closed instead, so the next borrower never inherits them.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * @param minIdle             connections kept open even when unused
+     * @param maxSize             most connections open at once, lent out or idle
+     * @param borrowTimeoutMillis how long a borrow waits for a connection when all are lent out
+     * @param idleTimeoutMillis   how long a connection above the minimum may sit idle before it is closed
+     * @param maxLifetimeMillis   how long a connection is used at most before it is replaced
+     * @param statementCacheSize  prepared statements kept open per connection, or 0 to not cache them
+     */
+    public record Settings(int minIdle, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis,
+                           int statementCacheSize) {
+        public Settings {
+            if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+                throw new IllegalArgumentException("Need 0 <= minIdle <= maxSize and maxSize >= 1");
+            }
+            if (statementCacheSize < 0) {
+                throw new IllegalArgumentException("statementCacheSize must not be negative");
+            }
+        }
+    }
+
+    /**
+     * @param open             connections open, lent out or idle
+     * @param idle             connections waiting in the pool
+     * @param borrows          borrows that got a connection
+     * @param created          physical connections opened
+     * @param timeouts         borrows that gave up waiting
+     * @param totalWaitNanos   time borrows spent waiting for a connection, summed
+     * @param maxWaitNanos     longest a borrow has waited
+     * @param statementHits    prepared statements taken from a connection's cache
+     * @param statementMisses  prepared statements that had to be prepared
+     */
+    public record Stats(int open, int idle, long borrows, long created, long timeouts, long totalWaitNanos, long maxWaitNanos,
+                        long statementHits, long statementMisses) {
+        public double averageWaitMillis() {
+            return borrows == 0 ? 0 : totalWaitNanos / 1e6 / borrows;
+        }
+
+        public double statementHitRate() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0 : (double) statementHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("open=%d idle=%d borrows=%d created=%d timeouts=%d avgWait=%.2fms maxWait=%.2fms statementHitRate=%.3f",
+                    open, idle, borrows, created, timeouts, averageWaitMillis(), maxWaitNanos / 1e6, statementHitRate());
+        }
+    }
+
+    // a connection used this recently is handed out again without a validation round trip
+    private static final long VALIDATION_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // statement settings clearParameters() and clearBatch() leave alone; a statement with any of them changed is closed rather than cached
+    private static final Set<String> STATEMENT_SETTERS = Set.of("setMaxRows", "setLargeMaxRows", "setFetchSize",
+            "setFetchDirection", "setQueryTimeout", "setMaxFieldSize", "setEscapeProcessing", "setPoolable",
+            "setCursorName", "closeOnCompletion");
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    // most recently returned last, so borrows take the warmest connection
+    private final ArrayDeque<Pooled> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private int open;
+    private boolean closed;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(settings.idleTimeoutMillis(), settings.maxLifetimeMillis()) / 4);
+        housekeeper.scheduleWithFixedDelay(this::evictAndRefill, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a connection that goes back to the pool when closed
+     * @throws SQLException if no connection frees up within the borrow timeout, or a new one cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.borrowTimeoutMillis());
+        while (true) {
+            Pooled candidate = null;
+            boolean create = false;
+            lock.lock();
+            try {
+                while (candidate == null && !create) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    candidate = idle.pollLast();
+                    if (candidate == null) {
+                        if (open < settings.maxSize()) {
+                            open++;
+                            create = true;
+                        } else {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                timeouts.incrementAndGet();
+                                throw new SQLException("Timed out after " + settings.borrowTimeoutMillis()
+                                        + " ms waiting for a database connection; all " + settings.maxSize() + " are in use");
+                            }
+                            returned.awaitNanos(remaining);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a database connection", e);
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                candidate = open();
+            } else if (!isUsable(candidate, System.nanoTime())) {
+                discard(candidate);
+                continue;
+            }
+            recordBorrow(System.nanoTime() - start);
+            return candidate.lend();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(open, idle.size(), borrows.get(), created.get(), timeouts.get(),
+                    totalWaitNanos.get(), maxWaitNanos.get(), statementHits.get(), statementMisses.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections and stops lending. Connections still lent
+     * out are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        ArrayDeque<Pooled> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(this::discard);
+    }
+
+    private Pooled open() throws SQLException {
+        try {
+            Pooled pooled = new Pooled(factory.create());
+            created.incrementAndGet();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                open--;
+                returned.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUsable(Pooled pooled, long now) {
+        if (now - pooled.createdAt > TimeUnit.MILLISECONDS.toNanos(settings.maxLifetimeMillis())) {
+            return false;
+        }
+        if (now - pooled.lastUsedAt < VALIDATION_GRACE_NANOS) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        borrows.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void giveBack(Pooled pooled) {
+        boolean keep;
+        try {
+            // leave no transaction or setting behind for the next borrower
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            keep = !pooled.connection.isClosed();
+        } catch (SQLException e) {
+            keep = false;
+        }
+
+        pooled.lastUsedAt = System.nanoTime();
+        keep &= pooled.lastUsedAt - pooled.createdAt <= TimeUnit.MILLISECONDS.toNanos(settings.maxLifetimeMillis());
+        lock.lock();
+        try {
+            if (keep && !closed) {
+                idle.addLast(pooled);
+                returned.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled);
+    }
+
+    /**
+     * Closes a physical connection that is no longer counted as idle
+     */
+    private void discard(Pooled pooled) {
+        lock.lock();
+        try {
+            open--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            // already unusable, which is why it is being thrown away
+        }
+    }
+
+    private void evictAndRefill() {
+        ArrayDeque<Pooled> toClose = new ArrayDeque<>();
+        int missing;
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<Pooled> oldestFirst = idle.iterator();
+            while (oldestFirst.hasNext()) {
+                Pooled pooled = oldestFirst.next();
+                boolean expired = now - pooled.createdAt > TimeUnit.MILLISECONDS.toNanos(settings.maxLifetimeMillis());
+                boolean idleTooLong = now - pooled.lastUsedAt > TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMillis())
+                        && open - toClose.size() > settings.minIdle();
+                if (expired || idleTooLong) {
+                    oldestFirst.remove();
+                    toClose.add(pooled);
+                }
+            }
+            missing = closed ? 0 : settings.minIdle() - (open - toClose.size());
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(this::discard);
+
+        for (int i = 0; i < missing; i++) {
+            lock.lock();
+            try {
+                if (closed || open >= settings.maxSize()) {
+                    return;
+                }
+                open++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                giveBack(open());
+            } catch (SQLException | RuntimeException e) {
+                // the database is unreachable for now; the next round tries again
+                return;
+            }
+        }
+    }
+
+    /**
+     * A physical connection and its bookkeeping
+     */
+    private final class Pooled {
+        final Connection connection;
+        final long createdAt = System.nanoTime();
+        long lastUsedAt = createdAt;
+        // statements not in use, least recently returned first; only the borrower touches it
+        private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+        Pooled(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * @return a cached statement for the key, now in use, or null if there is none
+         */
+        PreparedStatement takeStatement(String key) {
+            PreparedStatement statement = statements.remove(key);
+            (statement == null ? statementMisses : statementHits).incrementAndGet();
+            return statement;
+        }
+
+        void returnStatement(String key, PreparedStatement statement) {
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                closeQuietly(statement);
+                return;
+            }
+            // a second statement for the same SQL, prepared while this one was in use, is not kept
+            PreparedStatement replaced = statements.put(key, statement);
+            if (replaced != null) {
+                closeQuietly(replaced);
+            }
+            if (statements.size() > settings.statementCacheSize()) {
+                Iterator<PreparedStatement> leastRecent = statements.values().iterator();
+                closeQuietly(leastRecent.next());
+                leastRecent.remove();
+            }
+        }
+
+        /**
+         * @return a handle on the connection for one borrower, whose close returns it once
+         */
+        Connection lend() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // nothing more to release
+        }
+    }
+
+    /**
+     * @return the cache key for a prepareStatement call, or null if its kind of statement is not cached
+     */
+    private String statementKey(Object[] args) {
+        if (settings.statementCacheSize() == 0) {
+            return null;
+        }
+        if (args.length == 1) {
+            return (String) args[0];
+        }
+        // prepareStatement(sql, autoGeneratedKeys)
+        if (args.length == 2 && args[1] instanceof Integer keys) {
+            return keys + ":" + args[0];
+        }
+        return null;
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Pooled pooled;
+        private boolean returned;
+
+        Handle(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled" + pooled.connection;
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                }
+            }
+
+            String key = method.getName().equals("prepareStatement") ? statementKey(args) : null;
+            if (key != null) {
+                PreparedStatement statement = pooled.takeStatement(key);
+                if (statement == null) {
+                    statement = (PreparedStatement) invokeOn(pooled.connection, method, args);
+                }
+                return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class}, new CachedStatement(pooled, key, statement, (Connection) proxy));
+            }
+            return invokeOn(pooled.connection, method, args);
+        }
+    }
+
+    /**
+     * A borrowed prepared statement, whose close puts it back in its connection's cache
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        private final Pooled pooled;
+        private final String key;
+        private final PreparedStatement statement;
+        private final Connection connection;
+        private boolean returned;
+        private boolean reconfigured;
+
+        CachedStatement(Pooled pooled, String key, PreparedStatement statement, Connection connection) {
+            this.pooled = pooled;
+            this.key = key;
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        if (reconfigured) {
+                            closeQuietly(statement);
+                        } else {
+                            pooled.returnStatement(key, statement);
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Cached" + statement;
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Statement has been closed");
+                    }
+                    reconfigured |= STATEMENT_SETTERS.contains(method.getName());
+                }
+            }
+            return invokeOn(statement, method, args);
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
@@ -27,6 +29,12 @@ public interface DataAccess {
 
     GameData updateGame(GameData game) throws DataAccessException;
 
+    // append a move to a game's move log, list the moves logged after a ply;
+    // the game passed in is the one the move was made in, and its ply count numbers the move
+    void appendMove(int gameID, ChessGame game, ChessMove move) throws DataAccessException;
+
+    ArrayList<ChessMove> listMoves(int gameID, int afterPly) throws DataAccessException;
+
     // create auth, get auth, delete auth
     boolean createAuth(AuthData auth) throws DataAccessException;
 
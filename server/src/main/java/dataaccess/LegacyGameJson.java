@@ -0,0 +1,71 @@
+package dataaccess;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.*;
+
+import java.lang.reflect.Type;
+
+/**
+ * Reads games saved as JSON, as the games table held them before it stored
+ * {@link chess.ChessGameCodec} bytes. The board of those days kept its pieces
+ * in a {@code myChessBoard} array of rows, which today's ChessBoard has no
+ * field for, so the board is rebuilt piece by piece.
+ */
+final class LegacyGameJson {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ChessBoard.class, (JsonDeserializer<ChessBoard>) LegacyGameJson::readBoard)
+            .create();
+
+    private LegacyGameJson() {
+    }
+
+    static ChessGame parse(String json) throws DataAccessException {
+        try {
+            ChessGame game = GSON.fromJson(json, ChessGame.class);
+            if (game == null || game.getBoard() == null || game.getTeamTurn() == null) {
+                throw new JsonParseException("missing board or turn");
+            }
+            return game;
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new DataAccessException("Error: Unreadable saved game: " + e.getMessage(), 500);
+        }
+    }
+
+    private static ChessBoard readBoard(JsonElement json, Type type, JsonDeserializationContext context) {
+        JsonArray rows = json.getAsJsonObject().getAsJsonArray("myChessBoard");
+        if (rows == null || rows.size() != 8) {
+            throw new JsonParseException("board is not 8 rows of myChessBoard");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int row = 0; row < 8; row++) {
+            JsonArray squares = rows.get(row).getAsJsonArray();
+            for (int col = 0; col < squares.size() && col < 8; col++) {
+                JsonElement square = squares.get(col);
+                if (square.isJsonNull()) {
+                    continue;
+                }
+                JsonObject piece = square.getAsJsonObject();
+                board.addPiece(new ChessPosition(row + 1, col + 1), new ChessPiece(
+                        readName(piece, "pieceColor", ChessGame.TeamColor.class),
+                        readName(piece, "type", ChessPiece.PieceType.class)));
+            }
+        }
+        return board;
+    }
+
+    private static <E extends Enum<E>> E readName(JsonObject piece, String field, Class<E> type) {
+        JsonElement name = piece.get(field);
+        if (name == null || !name.isJsonPrimitive()) {
+            throw new JsonParseException("piece has no " + field);
+        }
+        try {
+            return Enum.valueOf(type, name.getAsString());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("unknown " + field + " " + name.getAsString());
+        }
+    }
+}
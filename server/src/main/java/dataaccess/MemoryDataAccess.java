@@ -1,23 +1,28 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.TreeMap;
 
 public class MemoryDataAccess implements DataAccess {
 
     final private HashMap<String, UserData> users = new HashMap<>();
     private final HashMap<Integer, GameData> games = new HashMap<>();
     private final HashMap<String, AuthData> auths = new HashMap<>();
+    private final HashMap<Integer, TreeMap<Integer, ChessMove>> moves = new HashMap<>();
 
     @Override
     public void clear() {
         users.clear();
         games.clear();
         auths.clear();
+        moves.clear();
     }
 
     @Override
@@ -65,6 +70,25 @@ public class MemoryDataAccess implements DataAccess {
         return null;
     }
 
+    @Override
+    public void appendMove(int gameID, ChessGame game, ChessMove move) throws DataAccessException {
+        GameData stored = games.get(gameID);
+        if (stored == null) {
+            throw new DataAccessException("{message: Error: game not found}", 404);
+        }
+        TreeMap<Integer, ChessMove> log = moves.computeIfAbsent(gameID, id -> new TreeMap<>());
+        if (log.putIfAbsent(game.getPlyCount(), move) != null) {
+            throw new DataAccessException("{message: Error: move already recorded}", 409);
+        }
+        games.put(gameID, new GameData(gameID, stored.whiteUsername(), stored.blackUsername(), stored.gameName(), game));
+    }
+
+    @Override
+    public ArrayList<ChessMove> listMoves(int gameID, int afterPly) {
+        TreeMap<Integer, ChessMove> log = moves.get(gameID);
+        return log == null ? new ArrayList<>() : new ArrayList<>(log.tailMap(afterPly, false).values());
+    }
+
     @Override
     public boolean createAuth(AuthData auth) {
         if (!auths.containsKey(auth.authToken())) {
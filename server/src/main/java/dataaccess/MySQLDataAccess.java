@@ -1,13 +1,18 @@
 package dataaccess;
 import chess.ChessGame;
-import com.google.gson.Gson;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
 
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
@@ -15,6 +20,9 @@ import static java.sql.Types.NULL;
 
 public class MySQLDataAccess implements DataAccess {
 
+    // how many moves apart full games are written to game_snapshots, bounding the moves replayed on load
+    static final int SNAPSHOT_INTERVAL = 16;
+
     public MySQLDataAccess() throws DataAccessException {
         DatabaseManager.createDatabase();
         configureDatabase();
@@ -26,6 +34,8 @@ public class MySQLDataAccess implements DataAccess {
         executeUpdate("TRUNCATE users");
         executeUpdate("TRUNCATE games");
         executeUpdate("TRUNCATE auths");
+        executeUpdate("TRUNCATE game_moves");
+        executeUpdate("TRUNCATE game_snapshots");
     }
 
     @Override
@@ -76,14 +86,14 @@ public class MySQLDataAccess implements DataAccess {
 @Override
 public Integer createGame(GameData game) throws DataAccessException {
     var statement = "INSERT INTO games (whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?)";
-    var json = new Gson().toJson(game.game());
+    var encoded = ChessGameCodec.encode(game.game());
     try (var conn = DatabaseManager.getConnection()) {
         conn.setAutoCommit(false);
         try (var ps = conn.prepareStatement(statement, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, game.whiteUsername());
             ps.setString(2, game.blackUsername());
             ps.setString(3, game.gameName());
-            ps.setString(4, json);
+            ps.setBytes(4, encoded);
             int affectedRows = ps.executeUpdate();
 
             if (affectedRows == 0) {
@@ -125,11 +135,13 @@ public Integer createGame(GameData game) throws DataAccessException {
                                 rs.getString("whiteUsername"),
                                 rs.getString("blackUsername"),
                                 rs.getString("gameName"),
-                                new Gson().fromJson(rs.getString("game"), ChessGame.class)
+                                loadGame(conn, rs.getInt("gameID"), readGame(rs))
                         );
                     }
                 }
             }
+        } catch (DataAccessException e) {
+            throw e;
         } catch (Exception e) {
             throw new DataAccessException("Error: Unable to read data: " + e.getMessage(), 403);
         }
@@ -140,20 +152,53 @@ public Integer createGame(GameData game) throws DataAccessException {
 public ArrayList<GameData> listGames() throws DataAccessException {
     var result = new ArrayList<GameData>();
     try (var conn = DatabaseManager.getConnection()) {
+        var rows = new ArrayList<GameData>();
         var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM games";
-        try (var ps = conn.prepareStatement(statement)) {
-            try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    result.add(new GameData(
-                            rs.getInt("gameID"),
-                            rs.getString("whiteUsername"),
-                            rs.getString("blackUsername"),
-                            rs.getString("gameName"),
-                            new Gson().fromJson(rs.getString("game"), ChessGame.class)
-                    ));
-                }
+        try (var ps = conn.prepareStatement(statement);
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new GameData(
+                        rs.getInt("gameID"),
+                        rs.getString("whiteUsername"),
+                        rs.getString("blackUsername"),
+                        rs.getString("gameName"),
+                        readGame(rs)
+                ));
+            }
+        }
+
+        // every game's latest snapshot and the moves logged after it, in one query each
+        var snapshots = new HashMap<Integer, ChessGame>();
+        try (var ps = conn.prepareStatement("""
+                SELECT s.gameID, s.game FROM game_snapshots s
+                JOIN (SELECT gameID, MAX(ply) AS ply FROM game_snapshots GROUP BY gameID) latest
+                  ON s.gameID = latest.gameID AND s.ply = latest.ply""");
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                snapshots.put(rs.getInt("gameID"), ChessGameCodec.decode(rs.getBytes("game")));
+            }
+        }
+        var moves = new HashMap<Integer, ArrayList<LoggedMove>>();
+        try (var ps = conn.prepareStatement("""
+                SELECT m.gameID, m.ply, m.move FROM game_moves m
+                LEFT JOIN (SELECT gameID, MAX(ply) AS ply FROM game_snapshots GROUP BY gameID) latest
+                  ON m.gameID = latest.gameID
+                WHERE m.ply > COALESCE(latest.ply, 0)
+                ORDER BY m.gameID, m.ply""");
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                moves.computeIfAbsent(rs.getInt("gameID"), id -> new ArrayList<>())
+                        .add(new LoggedMove(rs.getInt("ply"), ChessGameCodec.decodeMove(rs.getInt("move"))));
             }
         }
+
+        for (GameData row : rows) {
+            ChessGame game = replay(row.gameID(), later(row.game(), snapshots.get(row.gameID())),
+                    moves.getOrDefault(row.gameID(), new ArrayList<>()));
+            result.add(new GameData(row.gameID(), row.whiteUsername(), row.blackUsername(), row.gameName(), game));
+        }
+    } catch (DataAccessException e) {
+        throw e;
     } catch (Exception e) {
         throw new DataAccessException("Error: Unable to list games: " + e.getMessage(), 403);
     }
@@ -164,14 +209,14 @@ public ArrayList<GameData> listGames() throws DataAccessException {
 @Override
 public GameData updateGame(GameData game) throws DataAccessException {
     String statement = "UPDATE games SET whiteUsername=?, blackUsername=?, gameName=?, game=? WHERE gameID=?";
-    String json = new Gson().toJson(game.game());
+    byte[] encoded = ChessGameCodec.encode(game.game());
 
     try (Connection conn = DatabaseManager.getConnection();
          PreparedStatement ps = conn.prepareStatement(statement)) {
         ps.setString(1, game.whiteUsername());
         ps.setString(2, game.blackUsername());
         ps.setString(3, game.gameName());
-        ps.setString(4, json);
+        ps.setBytes(4, encoded);
         ps.setInt(5, game.gameID());
 
         int rowsAffected = ps.executeUpdate();
@@ -186,6 +231,48 @@ public GameData updateGame(GameData game) throws DataAccessException {
 }
 
 
+@Override
+public void appendMove(int gameID, ChessGame game, ChessMove move) throws DataAccessException {
+    int ply = game.getPlyCount();
+    try (Connection conn = DatabaseManager.getConnection()) {
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO game_moves (gameID, ply, move) VALUES (?, ?, ?)")) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, ply);
+            ps.setInt(3, ChessGameCodec.encodeMove(move));
+            ps.executeUpdate();
+
+            if (ply % SNAPSHOT_INTERVAL == 0) {
+                try (PreparedStatement snapshot = conn.prepareStatement("INSERT INTO game_snapshots (gameID, ply, game) VALUES (?, ?, ?)")) {
+                    snapshot.setInt(1, gameID);
+                    snapshot.setInt(2, ply);
+                    snapshot.setBytes(3, ChessGameCodec.encode(game));
+                    snapshot.executeUpdate();
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            // the primary key on (gameID, ply) turns away a second move for the same ply
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                throw new DataAccessException("Error: move " + ply + " of game " + gameID + " already recorded", 409);
+            }
+            throw new DataAccessException("Error: Error inserting move: " + e.getMessage(), 500);
+        }
+    } catch (SQLException e) {
+        throw new DataAccessException("Error: Database connection error: " + e.getMessage(), 500);
+    }
+}
+
+    @Override
+    public ArrayList<ChessMove> listMoves(int gameID, int afterPly) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            return readMoves(conn, gameID, afterPly);
+        } catch (SQLException e) {
+            throw new DataAccessException("Error: Unable to list moves: " + e.getMessage(), 500);
+        }
+    }
+
     @Override
 public boolean createAuth(AuthData auth) throws DataAccessException {
     var statement = "INSERT INTO auths (authToken, username) VALUES (?, ?)";
@@ -252,6 +339,91 @@ public boolean deleteAuth(String auth) throws DataAccessException {
     }
 }
 
+    /**
+     * Decodes the game column, which holds {@link ChessGameCodec} bytes
+     */
+    private ChessGame readGame(ResultSet rs) throws SQLException {
+        byte[] bytes = rs.getBytes("game");
+        return bytes == null ? null : ChessGameCodec.decode(bytes);
+    }
+
+    /**
+     * A move from the log, with the ply it was played at
+     */
+    private record LoggedMove(int ply, ChessMove move) {
+    }
+
+    /**
+     * Brings a game up to date from its move log: starts from whichever is
+     * later of the games row and the latest snapshot, then replays the moves
+     * logged after it
+     */
+    private ChessGame loadGame(Connection conn, int gameID, ChessGame stored) throws SQLException, DataAccessException {
+        ChessGame snapshot = null;
+        var statement = "SELECT game FROM game_snapshots WHERE gameID=? ORDER BY ply DESC LIMIT 1";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            try (var rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    snapshot = ChessGameCodec.decode(rs.getBytes("game"));
+                }
+            }
+        }
+        ChessGame game = later(stored, snapshot);
+        if (game == null) {
+            return null;
+        }
+
+        var moves = new ArrayList<LoggedMove>();
+        int ply = game.getPlyCount();
+        for (ChessMove move : readMoves(conn, gameID, ply)) {
+            moves.add(new LoggedMove(++ply, move));
+        }
+        return replay(gameID, game, moves);
+    }
+
+    private static ChessGame later(ChessGame stored, ChessGame snapshot) {
+        if (snapshot != null && (stored == null || snapshot.getPlyCount() > stored.getPlyCount())) {
+            return snapshot;
+        }
+        return stored;
+    }
+
+    /**
+     * Plays the logged moves past the game's own ply count, in order
+     */
+    private static ChessGame replay(int gameID, ChessGame game, ArrayList<LoggedMove> moves) throws DataAccessException {
+        if (game == null) {
+            return null;
+        }
+        for (LoggedMove logged : moves) {
+            if (logged.ply() <= game.getPlyCount()) {
+                continue;
+            }
+            try {
+                game.makeMove(logged.move());
+            } catch (InvalidMoveException e) {
+                throw new DataAccessException("Error: Move log of game " + gameID + " does not replay: " + e.getMessage(), 500);
+            }
+        }
+        return game;
+    }
+
+    private ArrayList<ChessMove> readMoves(Connection conn, int gameID, int afterPly) throws SQLException {
+        var moves = new ArrayList<ChessMove>();
+        var statement = "SELECT move FROM game_moves WHERE gameID=? AND ply>? ORDER BY ply";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, afterPly);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    moves.add(ChessGameCodec.decodeMove(rs.getInt("move")));
+                }
+            }
+        }
+        return moves;
+    }
+
     private void executeUpdate(String statement, Object... params) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection();
              var ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
@@ -284,6 +456,59 @@ public boolean deleteAuth(String auth) throws DataAccessException {
         }
     }
 
+    /**
+     * Converts a games table made before the codec, whose game column holds
+     * JSON text, to a BLOB column of {@link ChessGameCodec} bytes. MySQL
+     * commits the column change on its own, so the games still to convert are
+     * found by their contents rather than the column type: encoded games start
+     * with a version byte, JSON games with '{'. Should rewriting the games fail,
+     * they are rolled back and converted again on the next start.
+     */
+    static void migrateJsonGames(Connection conn) throws SQLException, DataAccessException {
+        var columnType = """
+                SELECT DATA_TYPE FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME='games' AND COLUMN_NAME='game'""";
+        String dataType;
+        try (var ps = conn.prepareStatement(columnType);
+             var rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return;
+            }
+            dataType = rs.getString("DATA_TYPE");
+        }
+        if (!dataType.equalsIgnoreCase("blob")) {
+            try (var ps = conn.prepareStatement("ALTER TABLE games MODIFY game BLOB")) {
+                ps.executeUpdate();
+            }
+        }
+
+        var encoded = new LinkedHashMap<Integer, byte[]>();
+        try (var ps = conn.prepareStatement("SELECT gameID, game FROM games WHERE game LIKE '{%'");
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                var json = new String(rs.getBytes("game"), StandardCharsets.UTF_8);
+                encoded.put(rs.getInt("gameID"), ChessGameCodec.encode(LegacyGameJson.parse(json)));
+            }
+        }
+        if (encoded.isEmpty()) {
+            return;
+        }
+
+        conn.setAutoCommit(false);
+        try (var ps = conn.prepareStatement("UPDATE games SET game=? WHERE gameID=?")) {
+            for (var entry : encoded.entrySet()) {
+                ps.setBytes(1, entry.getValue());
+                ps.setInt(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
     private void configureDatabase() throws DataAccessException {
         DatabaseManager.createDatabase();
         String[] createStatements = {
@@ -299,12 +524,26 @@ public boolean deleteAuth(String auth) throws DataAccessException {
                   whiteUsername VARCHAR(256),
                   blackUsername VARCHAR(256),
                   gameName VARCHAR(256),
-                  game TEXT
+                  game BLOB
                 )""",
                 """
                 CREATE TABLE IF NOT EXISTS auths (
                   authToken VARCHAR(256) PRIMARY KEY,
                   username VARCHAR(256) NOT NULL
+                )""",
+                """
+                CREATE TABLE IF NOT EXISTS game_moves (
+                  gameID INT NOT NULL,
+                  ply INT NOT NULL,
+                  move SMALLINT NOT NULL,
+                  PRIMARY KEY (gameID, ply)
+                )""",
+                """
+                CREATE TABLE IF NOT EXISTS game_snapshots (
+                  gameID INT NOT NULL,
+                  ply INT NOT NULL,
+                  game BLOB NOT NULL,
+                  PRIMARY KEY (gameID, ply)
                 )"""
         };
         try (var conn = DatabaseManager.getConnection()) {
@@ -313,6 +552,7 @@ public boolean deleteAuth(String auth) throws DataAccessException {
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateJsonGames(conn);
         } catch (SQLException ex) {
             throw new DataAccessException("Error: Unable to configure database: " + ex.getMessage(), 403);
         } catch (DataAccessException e) {
@@ -3,6 +3,7 @@ package server;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import dataaccess.DataAccessException;
+import dataaccess.CachingDataAccess;
 import dataaccess.DataAccess;
 import dataaccess.MySQLDataAccess;
 import model.AuthData;
@@ -17,7 +18,7 @@ public class Server {
     public Server() {
         DataAccess dataAccess = null;
         try {
-            dataAccess = new MySQLDataAccess();
+            dataAccess = new CachingDataAccess(new MySQLDataAccess());
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
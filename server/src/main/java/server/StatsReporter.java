@@ -0,0 +1,66 @@
+package server;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs the usage counters of the server's pools and caches at a fixed
+ * interval, one line per source, so their sizes can be checked against real
+ * traffic. Sources are read on a daemon thread, so their stats have to be
+ * safe to read from any thread.
+ */
+public class StatsReporter implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(StatsReporter.class.getName());
+
+    private final Map<String, Supplier<?>> sources = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param name  how the source is labelled in the log
+     * @param stats reads the source's current stats
+     */
+    public StatsReporter add(String name, Supplier<?> stats) {
+        sources.put(name, stats);
+        return this;
+    }
+
+    /**
+     * Starts logging every period, first after one period has passed
+     */
+    public StatsReporter start(Duration period) {
+        long millis = period.toMillis();
+        scheduler.scheduleAtFixedRate(this::report, millis, millis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Logs every source once, now
+     */
+    void report() {
+        for (Map.Entry<String, Supplier<?>> source : sources.entrySet()) {
+            try {
+                LOG.info(source.getKey() + ": " + source.getValue().get());
+            } catch (RuntimeException e) {
+                // one failing source does not end the reporting of the others
+                LOG.log(Level.WARNING, "Unable to read " + source.getKey() + " stats", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -1,6 +1,8 @@
 package service;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import dataaccess.DataAccessException;
 import dataaccess.DataAccess;
 import model.AuthData;
@@ -65,6 +67,38 @@ public class GameService {
         return new JoinGameResult();
     }
 
+    public GameData makeMove(String authToken, int gameID, ChessMove move) throws DataAccessException {
+        if (authToken == null || authToken.isEmpty() || move == null) {
+            throw new DataAccessException("{message: Error: bad request}", 400);
+        }
+
+        AuthData authData = dataAccess.getAuth(authToken);
+        if (authData == null) {
+            throw new DataAccessException("{message: Error: unauthorized}", 401);
+        }
+
+        GameData game = dataAccess.getGame(gameID);
+        if (game == null) {
+            throw new DataAccessException("{message: Error: game not found}", 404);
+        }
+
+        String player = game.game().getTeamTurn() == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+        if (!authData.username().equals(player)) {
+            throw new DataAccessException("{message: Error: not your turn}", 403);
+        }
+
+        // the move is made on a copy, so a game the DataAccess hands out stays as stored if the append fails
+        ChessGame played = game.game().copyGame();
+        try {
+            played.makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("{message: Error: invalid move}", 400);
+        }
+        // only the move is written, not the whole game
+        dataAccess.appendMove(gameID, played, move);
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), played);
+    }
+
     private static GameData getGameData(String playerColor, GameData game, AuthData authData) throws DataAccessException {
         String whitePlayer = game.whiteUsername();
         String blackPlayer = game.blackUsername();
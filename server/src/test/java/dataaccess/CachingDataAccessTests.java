@@ -0,0 +1,147 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingDataAccessTests {
+
+    /**
+     * Counts the auth lookups that get past the cache
+     */
+    private static class CountingDataAccess extends MemoryDataAccess {
+        int lookups;
+        // run in the middle of the next lookup, as another request would
+        Runnable duringLookup;
+
+        @Override
+        public AuthData getAuth(String auth) {
+            lookups++;
+            AuthData found = super.getAuth(auth);
+            if (duringLookup != null) {
+                Runnable action = duringLookup;
+                duringLookup = null;
+                action.run();
+            }
+            return found;
+        }
+    }
+
+    private CountingDataAccess memory;
+    private CachingDataAccess cache;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        memory = new CountingDataAccess();
+        cache = new CachingDataAccess(memory, 2, Duration.ofSeconds(60), Duration.ofSeconds(1), () -> now);
+    }
+
+    @Test
+    void cachesFoundTokens() throws DataAccessException {
+        memory.createAuth(new AuthData("luke", "token"));
+        assertEquals("luke", cache.getAuth("token").username());
+        assertEquals("luke", cache.getAuth("token").username());
+
+        assertEquals(1, memory.lookups);
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+
+    @Test
+    void createdTokensAreCachedAtOnce() throws DataAccessException {
+        assertNull(cache.getAuth("token"));
+        assertTrue(cache.createAuth(new AuthData("luke", "token")));
+
+        assertEquals("luke", cache.getAuth("token").username());
+        assertEquals(1, memory.lookups);
+    }
+
+    @Test
+    void cachesMissingTokensBriefly() throws DataAccessException {
+        assertNull(cache.getAuth("bad"));
+        assertNull(cache.getAuth("bad"));
+        assertEquals(1, memory.lookups);
+        assertEquals(1, cache.stats().negativeHits());
+
+        now += Duration.ofSeconds(2).toNanos();
+        assertNull(cache.getAuth("bad"));
+        assertEquals(2, memory.lookups);
+    }
+
+    @Test
+    void expiresAfterTtl() throws DataAccessException {
+        cache.createAuth(new AuthData("luke", "token"));
+        now += Duration.ofSeconds(61).toNanos();
+
+        assertEquals("luke", cache.getAuth("token").username());
+        assertEquals(1, memory.lookups);
+    }
+
+    @Test
+    void deleteAuthInvalidates() throws DataAccessException {
+        cache.createAuth(new AuthData("luke", "token"));
+        assertNotNull(cache.getAuth("token"));
+        assertTrue(cache.deleteAuth("token"));
+
+        assertNull(cache.getAuth("token"));
+    }
+
+    @Test
+    void clearInvalidates() throws DataAccessException {
+        cache.createAuth(new AuthData("luke", "token"));
+        cache.clear();
+
+        assertNull(cache.getAuth("token"));
+        assertEquals(1, cache.stats().size());
+    }
+
+    @Test
+    void lookupRacingDeleteIsNotCached() throws DataAccessException {
+        memory.createAuth(new AuthData("luke", "token"));
+        memory.duringLookup = () -> {
+            try {
+                cache.deleteAuth("token");
+            } catch (DataAccessException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        assertEquals("luke", cache.getAuth("token").username());
+
+        assertNull(cache.getAuth("token"));
+        assertEquals(2, memory.lookups);
+    }
+
+    @Test
+    void otherTokensInvalidatedDuringLookupDoNotStopCaching() throws DataAccessException {
+        memory.createAuth(new AuthData("luke", "token"));
+        memory.duringLookup = () -> {
+            try {
+                cache.deleteAuth("other");
+            } catch (DataAccessException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        assertEquals("luke", cache.getAuth("token").username());
+
+        assertEquals("luke", cache.getAuth("token").username());
+        assertEquals(1, memory.lookups);
+    }
+
+    @Test
+    void dropsLeastRecentlyUsed() throws DataAccessException {
+        cache.createAuth(new AuthData("a", "tokenA"));
+        cache.createAuth(new AuthData("b", "tokenB"));
+        cache.getAuth("tokenA");
+        cache.createAuth(new AuthData("c", "tokenC"));
+
+        assertEquals(2, cache.stats().size());
+        cache.getAuth("tokenA");
+        assertEquals(0, memory.lookups);
+        cache.getAuth("tokenB");
+        assertEquals(1, memory.lookups);
+    }
+}
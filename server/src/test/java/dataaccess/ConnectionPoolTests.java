@@ -0,0 +1,224 @@
+package dataaccess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+
+    /**
+     * The state of a fake physical connection
+     */
+    private static class FakeConnection {
+        boolean autoCommit = true;
+        boolean closed;
+        int rollbacks;
+        int prepares;
+        int parameterClears;
+        int batchClears;
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    private Connection fake() {
+        FakeConnection state = new FakeConnection();
+        opened.add(state);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getAutoCommit" -> state.autoCommit;
+                    case "setAutoCommit" -> {
+                        state.autoCommit = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        state.rollbacks++;
+                        yield null;
+                    }
+                    case "close" -> {
+                        state.closed = true;
+                        yield null;
+                    }
+                    case "isClosed" -> state.closed;
+                    case "isValid" -> !state.closed;
+                    case "prepareStatement" -> {
+                        state.prepares++;
+                        yield fakeStatement(state);
+                    }
+                    default -> null;
+                });
+    }
+
+    private static PreparedStatement fakeStatement(FakeConnection connection) {
+        boolean[] closed = {false};
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed[0] = true;
+                        yield null;
+                    }
+                    case "isClosed" -> closed[0];
+                    case "executeUpdate" -> 1;
+                    case "clearParameters" -> {
+                        connection.parameterClears++;
+                        yield null;
+                    }
+                    case "clearBatch" -> {
+                        connection.batchClears++;
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+
+    private ConnectionPool pool(int maxSize, long borrowTimeoutMillis, long maxLifetimeMillis) {
+        pool = new ConnectionPool(this::fake, new ConnectionPool.Settings(0, maxSize, borrowTimeoutMillis, 60_000, maxLifetimeMillis, 2));
+        return pool;
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void reusesReturnedConnections() throws SQLException {
+        ConnectionPool pool = pool(2, 1_000, 60_000);
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+
+        assertEquals(1, opened.size());
+        assertEquals(2, pool.stats().borrows());
+        assertEquals(1, pool.stats().idle());
+    }
+
+    @Test
+    void timesOutWhenAllAreLentOut() throws SQLException {
+        ConnectionPool pool = pool(1, 50, 60_000);
+        try (Connection conn = pool.borrow()) {
+            assertThrows(SQLException.class, pool::borrow);
+            assertFalse(conn.isClosed());
+        }
+
+        assertEquals(1, pool.stats().timeouts());
+        assertEquals(1, pool.stats().open());
+    }
+
+    @Test
+    void returnedHandleCannotBeUsed() throws SQLException {
+        ConnectionPool pool = pool(1, 1_000, 60_000);
+        Connection conn = pool.borrow();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        assertFalse(opened.get(0).closed);
+    }
+
+    @Test
+    void rollsBackUnfinishedTransactions() throws SQLException {
+        ConnectionPool pool = pool(1, 1_000, 60_000);
+        try (Connection conn = pool.borrow()) {
+            conn.setAutoCommit(false);
+        }
+
+        assertEquals(1, opened.get(0).rollbacks);
+        assertTrue(opened.get(0).autoCommit);
+    }
+
+    @Test
+    void reusesPreparedStatements() throws SQLException {
+        ConnectionPool pool = pool(1, 1_000, 60_000);
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = pool.borrow();
+                 PreparedStatement ps = conn.prepareStatement("SELECT authToken, username FROM auths WHERE authToken=?")) {
+                ps.setString(1, "token" + i);
+                assertEquals(1, ps.executeUpdate());
+                assertSame(conn, ps.getConnection());
+            }
+        }
+
+        assertEquals(1, opened.get(0).prepares);
+        assertEquals(2, pool.stats().statementHits());
+        assertEquals(1, pool.stats().statementMisses());
+    }
+
+    @Test
+    void statementsInUseAreNotShared() throws SQLException {
+        ConnectionPool pool = pool(1, 1_000, 60_000);
+        try (Connection conn = pool.borrow()) {
+            PreparedStatement first = conn.prepareStatement("SELECT 1");
+            PreparedStatement second = conn.prepareStatement("SELECT 1");
+            first.close();
+
+            assertTrue(first.isClosed());
+            assertThrows(SQLException.class, first::executeUpdate);
+            assertEquals(1, second.executeUpdate());
+            second.close();
+            // the cache holds 2 statements, so a third SQL string evicts the least recently used
+            conn.prepareStatement("SELECT 2").close();
+            conn.prepareStatement("SELECT 3").close();
+            conn.prepareStatement("SELECT 1").close();
+        }
+
+        assertEquals(5, opened.get(0).prepares);
+    }
+
+    @Test
+    void reconfiguredStatementsAreNotCached() throws SQLException {
+        ConnectionPool pool = pool(1, 1_000, 60_000);
+        try (Connection conn = pool.borrow()) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT gameID FROM games")) {
+                ps.setMaxRows(1);
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT gameID FROM games")) {
+                ps.setString(1, "unchanged");
+            }
+            conn.prepareStatement("SELECT gameID FROM games").close();
+        }
+
+        // the statement limited to one row was closed, and the next one prepared afresh and then reused
+        assertEquals(2, opened.get(0).prepares);
+        assertEquals(1, pool.stats().statementHits());
+    }
+
+    @Test
+    void cachedStatementsAreCleared() throws SQLException {
+        ConnectionPool pool = pool(1, 1_000, 60_000);
+        try (Connection conn = pool.borrow()) {
+            try (PreparedStatement ps = conn.prepareStatement("UPDATE games SET game=? WHERE gameID=?")) {
+                ps.setInt(2, 1);
+                ps.addBatch();
+            }
+            conn.prepareStatement("UPDATE games SET game=? WHERE gameID=?").close();
+        }
+
+        // a batch left behind by one borrower is not run by the next
+        assertEquals(1, opened.get(0).prepares);
+        assertEquals(2, opened.get(0).parameterClears);
+        assertEquals(2, opened.get(0).batchClears);
+    }
+
+    @Test
+    void replacesExpiredConnections() throws SQLException, InterruptedException {
+        ConnectionPool pool = pool(1, 1_000, 5);
+        pool.borrow().close();
+        Thread.sleep(20);
+        pool.borrow().close();
+
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed);
+    }
+}
@@ -1,6 +1,9 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import dataaccess.DataAccessException;
 import dataaccess.MemoryDataAccess;
 import model.AuthData;
@@ -118,6 +121,39 @@ public class DataAccessTests {
         assertThrows(DataAccessException.class, () -> mySQLDataAccess.updateGame(invalidGame));
     }
 
+    @Test
+    void appendMove() throws DataAccessException, InvalidMoveException {
+        Integer gameId = mySQLDataAccess.createGame(new GameData(1, "white", "black", "Game1", new ChessGame()));
+        ChessMove[] knightMoves = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+        };
+        // enough moves to take a snapshot and log more after it
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < MySQLDataAccess.SNAPSHOT_INTERVAL + 3; i++) {
+            game.makeMove(knightMoves[i % 4]);
+            mySQLDataAccess.appendMove(gameId, game, knightMoves[i % 4]);
+        }
+
+        ChessGame loaded = mySQLDataAccess.getGame(gameId).game();
+        assertEquals(game.getPlyCount(), loaded.getPlyCount());
+        assertEquals(game.getTeamTurn(), loaded.getTeamTurn());
+        assertEquals(game.getBoard(), loaded.getBoard());
+        assertEquals(3, mySQLDataAccess.listMoves(gameId, MySQLDataAccess.SNAPSHOT_INTERVAL).size());
+    }
+
+    @Test
+    void appendMoveBad() throws DataAccessException, InvalidMoveException {
+        Integer gameId = mySQLDataAccess.createGame(new GameData(1, "white", "black", "Game1", new ChessGame()));
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessGame game = new ChessGame();
+        game.makeMove(move);
+        mySQLDataAccess.appendMove(gameId, game, move);
+        assertThrows(DataAccessException.class, () -> mySQLDataAccess.appendMove(gameId, game, move));
+    }
+
     @Test
     void createAuth() throws DataAccessException {
         AuthData auth = new AuthData("luke", "token123");
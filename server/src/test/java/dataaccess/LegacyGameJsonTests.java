@@ -0,0 +1,190 @@
+package dataaccess;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegacyGameJsonTests {
+
+    // new Gson().toJson(game) by the ChessGame of before the codec, after 1. e4 d5 2. exd5
+    private static final String SAVED_GAME = """
+            {"board":{"myChessBoard":[
+            [{"pieceColor":"WHITE","type":"ROOK"},{"pieceColor":"WHITE","type":"KNIGHT"},{"pieceColor":"WHITE","type":"BISHOP"},{"pieceColor":"WHITE","type":"QUEEN"},{"pieceColor":"WHITE","type":"KING"},{"pieceColor":"WHITE","type":"BISHOP"},{"pieceColor":"WHITE","type":"KNIGHT"},{"pieceColor":"WHITE","type":"ROOK"}],
+            [{"pieceColor":"WHITE","type":"PAWN"},{"pieceColor":"WHITE","type":"PAWN"},{"pieceColor":"WHITE","type":"PAWN"},{"pieceColor":"WHITE","type":"PAWN"},null,{"pieceColor":"WHITE","type":"PAWN"},{"pieceColor":"WHITE","type":"PAWN"},{"pieceColor":"WHITE","type":"PAWN"}],
+            [null,null,null,null,null,null,null,null],
+            [null,null,null,null,null,null,null,null],
+            [null,null,null,{"pieceColor":"WHITE","type":"PAWN"},null,null,null,null],
+            [null,null,null,null,null,null,null,null],
+            [{"pieceColor":"BLACK","type":"PAWN"},{"pieceColor":"BLACK","type":"PAWN"},{"pieceColor":"BLACK","type":"PAWN"},null,{"pieceColor":"BLACK","type":"PAWN"},{"pieceColor":"BLACK","type":"PAWN"},{"pieceColor":"BLACK","type":"PAWN"},{"pieceColor":"BLACK","type":"PAWN"}],
+            [{"pieceColor":"BLACK","type":"ROOK"},{"pieceColor":"BLACK","type":"KNIGHT"},{"pieceColor":"BLACK","type":"BISHOP"},{"pieceColor":"BLACK","type":"QUEEN"},{"pieceColor":"BLACK","type":"KING"},{"pieceColor":"BLACK","type":"BISHOP"},{"pieceColor":"BLACK","type":"KNIGHT"},{"pieceColor":"BLACK","type":"ROOK"}]
+            ]},"teamTurn":"BLACK"}
+            """;
+
+    @Test
+    void readsGamesSavedAsJson() throws DataAccessException, InvalidMoveException {
+        ChessGame game = LegacyGameJson.parse(SAVED_GAME);
+
+        ChessGame expected = new ChessGame();
+        expected.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        expected.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        expected.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        assertEquals(expected.getBoard(), game.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), game.getBoard().getPiece(new ChessPosition(5, 4)));
+        // the game plays on, and encodes like any other
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(5, 4), null));
+        assertEquals(game.getBoard(), ChessGameCodec.decode(ChessGameCodec.encode(game)).getBoard());
+    }
+
+    @Test
+    void rejectsOtherJson() {
+        DataAccessException e = assertThrows(DataAccessException.class, () -> LegacyGameJson.parse("{\"board\":{},\"teamTurn\":\"WHITE\"}"));
+        assertEquals(500, e.statusCode());
+        assertThrows(DataAccessException.class, () -> LegacyGameJson.parse("not json"));
+    }
+
+    @Test
+    void rejectsUnknownPieceType() {
+        DataAccessException e = assertThrows(DataAccessException.class,
+                () -> LegacyGameJson.parse(SAVED_GAME.replaceFirst("\"type\":\"QUEEN\"", "\"type\":\"ARCHBISHOP\"")));
+        assertEquals(500, e.statusCode());
+        assertTrue(e.getMessage().contains("ARCHBISHOP"), e.getMessage());
+    }
+
+    @Test
+    void rejectsPieceWithoutColor() {
+        DataAccessException e = assertThrows(DataAccessException.class,
+                () -> LegacyGameJson.parse(SAVED_GAME.replaceFirst("\"pieceColor\":\"WHITE\",", "")));
+        assertEquals(500, e.statusCode());
+        assertTrue(e.getMessage().contains("pieceColor"), e.getMessage());
+    }
+
+    @Test
+    void migrationFailingPartwayIsRetried() throws Exception {
+        FakeGamesTable table = new FakeGamesTable();
+        byte[] json = SAVED_GAME.getBytes(StandardCharsets.UTF_8);
+        for (int gameID = 1; gameID <= 3; gameID++) {
+            table.rows.put(gameID, json);
+        }
+
+        table.failAfter = 1;
+        assertThrows(SQLException.class, () -> MySQLDataAccess.migrateJsonGames(table.connection()));
+        // the column change stayed, the rewritten game did not
+        assertEquals("blob", table.dataType);
+        for (byte[] game : table.rows.values()) {
+            assertArrayEquals(json, game);
+        }
+
+        table.failAfter = -1;
+        MySQLDataAccess.migrateJsonGames(table.connection());
+        ChessGame expected = LegacyGameJson.parse(SAVED_GAME);
+        for (byte[] game : table.rows.values()) {
+            assertEquals(expected.getBoard(), ChessGameCodec.decode(game).getBoard());
+        }
+        assertEquals(1, table.alters);
+
+        // with nothing left to convert, a later start leaves the table alone
+        table.failAfter = 0;
+        MySQLDataAccess.migrateJsonGames(table.connection());
+    }
+
+    /**
+     * Just enough of a games table whose game column starts out as TEXT, with
+     * updates made outside auto-commit held back until commit
+     */
+    private static class FakeGamesTable {
+        final Map<Integer, byte[]> rows = new TreeMap<>();
+        final Map<Integer, byte[]> uncommitted = new TreeMap<>();
+        String dataType = "text";
+        int alters;
+        // how many batched updates run before the batch fails, or -1 to never fail
+        int failAfter = -1;
+        boolean autoCommit = true;
+
+        Connection connection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> statement((String) args[0]);
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "commit" -> {
+                            rows.putAll(uncommitted);
+                            uncommitted.clear();
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            uncommitted.clear();
+                            yield null;
+                        }
+                        default -> null;
+                    });
+        }
+
+        private PreparedStatement statement(String sql) {
+            List<Object[]> batch = new ArrayList<>();
+            Object[] params = new Object[2];
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "executeQuery" -> sql.contains("information_schema")
+                                ? resultSet(List.of(Map.of("DATA_TYPE", dataType)))
+                                : resultSet(rows.entrySet().stream()
+                                        .filter(row -> row.getValue()[0] == '{')
+                                        .map(row -> Map.<String, Object>of("gameID", row.getKey(), "game", row.getValue()))
+                                        .toList());
+                        case "executeUpdate" -> {
+                            assertTrue(sql.startsWith("ALTER TABLE games MODIFY game BLOB"), sql);
+                            dataType = "blob";
+                            alters++;
+                            yield 0;
+                        }
+                        case "setBytes", "setInt" -> {
+                            params[(Integer) args[0] - 1] = args[1];
+                            yield null;
+                        }
+                        case "addBatch" -> {
+                            batch.add(params.clone());
+                            yield null;
+                        }
+                        case "executeBatch" -> {
+                            for (int i = 0; i < batch.size(); i++) {
+                                if (i == failAfter) {
+                                    throw new SQLException("Lost connection to MySQL server during query");
+                                }
+                                (autoCommit ? rows : uncommitted).put((Integer) batch.get(i)[1], (byte[]) batch.get(i)[0]);
+                            }
+                            yield new int[batch.size()];
+                        }
+                        default -> null;
+                    });
+        }
+
+        private static ResultSet resultSet(List<? extends Map<String, ?>> results) {
+            Iterator<? extends Map<String, ?>> rest = results.iterator();
+            Object[] current = {null};
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "next" -> {
+                            current[0] = rest.hasNext() ? rest.next() : null;
+                            yield current[0] != null;
+                        }
+                        case "getString", "getBytes", "getInt" -> ((Map<?, ?>) current[0]).get(args[0]);
+                        default -> null;
+                    });
+        }
+    }
+}
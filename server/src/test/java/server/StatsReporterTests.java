@@ -0,0 +1,71 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatsReporterTests {
+
+    private final List<LogRecord> logged = new ArrayList<>();
+    private final Logger logger = Logger.getLogger(StatsReporter.class.getName());
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logged.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.removeHandler(handler);
+        logger.setUseParentHandlers(true);
+    }
+
+    @Test
+    void logsEverySource() {
+        try (StatsReporter reporter = new StatsReporter()) {
+            reporter.add("pool", () -> "open=1").add("cache", () -> 42);
+            reporter.report();
+        }
+
+        assertEquals(2, logged.size());
+        assertTrue(logged.stream().anyMatch(record -> record.getMessage().equals("pool: open=1")));
+        assertTrue(logged.stream().anyMatch(record -> record.getMessage().equals("cache: 42")));
+    }
+
+    @Test
+    void failingSourceDoesNotStopTheOthers() {
+        try (StatsReporter reporter = new StatsReporter()) {
+            reporter.add("broken", () -> {
+                throw new IllegalStateException("closed");
+            }).add("pool", () -> "open=1");
+            reporter.report();
+        }
+
+        assertEquals(2, logged.size());
+        assertTrue(logged.stream().anyMatch(record -> record.getMessage().equals("pool: open=1")));
+        assertTrue(logged.stream().anyMatch(record -> record.getThrown() instanceof IllegalStateException));
+    }
+}
@@ -1,7 +1,11 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import dataaccess.DataAccessException;
 import dataaccess.MemoryDataAccess;
+import model.GameData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import requestandresult.*;
@@ -121,4 +125,53 @@ public class ServiceTest {
         });
     }
 
+    @Test
+    void makeMove() throws DataAccessException {
+        RegisterResult registerResult = userService.registerUser(new RegisterRequest("username", "password", "lukeoj@byu.edu"));
+
+        CreateGameResult gameID = gameService.createGame(registerResult.authToken(), "game3");
+        gameService.joinGame(registerResult.authToken(), gameID.gameID(), "White");
+        GameData game = gameService.makeMove(registerResult.authToken(), gameID.gameID(),
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(1, game.game().getPlyCount());
+        assertEquals(ChessGame.TeamColor.BLACK, game.game().getTeamTurn());
+    }
+
+    @Test
+    void makeMoveBad() throws DataAccessException {
+        RegisterResult registerResult = userService.registerUser(new RegisterRequest("username", "password", "lukeoj@byu.edu"));
+
+        CreateGameResult gameID = gameService.createGame(registerResult.authToken(), "game4");
+        gameService.joinGame(registerResult.authToken(), gameID.gameID(), "Black");
+        assertThrows(DataAccessException.class, () -> {
+            gameService.makeMove(registerResult.authToken(), gameID.gameID(),
+                    new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        });
+    }
+
+    @Test
+    void makeMoveNotRecorded() throws DataAccessException {
+        // as when another request already recorded a move for the same ply
+        MemoryDataAccess memoryDataAccess = new MemoryDataAccess() {
+            @Override
+            public void appendMove(int gameID, ChessGame game, ChessMove move) throws DataAccessException {
+                throw new DataAccessException("{message: Error: move already recorded}", 409);
+            }
+        };
+        userService = new UserService(memoryDataAccess);
+        gameService = new GameService(memoryDataAccess);
+        RegisterResult registerResult = userService.registerUser(new RegisterRequest("username", "password", "lukeoj@byu.edu"));
+
+        CreateGameResult gameID = gameService.createGame(registerResult.authToken(), "game5");
+        gameService.joinGame(registerResult.authToken(), gameID.gameID(), "White");
+        DataAccessException e = assertThrows(DataAccessException.class, () -> gameService.makeMove(registerResult.authToken(),
+                gameID.gameID(), new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+
+        assertEquals(409, e.statusCode());
+        ChessGame stored = memoryDataAccess.getGame(gameID.gameID()).game();
+        assertEquals(0, stored.getPlyCount());
+        assertEquals(ChessGame.TeamColor.WHITE, stored.getTeamTurn());
+        assertNotNull(stored.getBoard().getPiece(new ChessPosition(2, 5)));
+    }
+
 }
@@ -0,0 +1,224 @@
+package chess;
+
+/**
+ * Attack masks built once at class load time.
+ * <p>
+ * Knights, kings and pawns get a plain mask per square. Rooks and bishops use
+ * magic bitboards: the blockers on a square's rays are multiplied by a magic
+ * number and shifted, giving a perfect-hash index into a table of attack
+ * masks, so a sliding attack query is a mask, a multiply, a shift and an
+ * array load. The magic numbers were found once by trying sparse random
+ * numbers until one hashed every blocker subset of a square without a harmful
+ * collision; building the tables from them only checks that they still do.
+ */
+final class Attacks {
+
+    private static final int[][] KNIGHT_OFFSETS = {
+            {2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {
+            {0, 1}, {0, -1}, {1, 0}, {-1, 0}
+    };
+    private static final int[][] BISHOP_DIRECTIONS = {
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    // indexed by the pawn's TeamColor ordinal, then its square
+    private static final long[][] PAWN = new long[2][64];
+    // squares strictly between two squares on a shared line, or 0 if they do not share one
+    private static final long[][] BETWEEN = new long[64][64];
+
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+            0x3080081040002080L, 0x0840400010002000L, 0x1200201008420080L, 0x3180080035801001L,
+            0x0A00200200100409L, 0x0A00040810018200L, 0xA0802A0041000880L, 0x0200004184020F21L,
+            0x0400800020804000L, 0x420C400420100440L, 0x0412001020420080L, 0x4482004200102008L,
+            0x0140800800800400L, 0x0001000400030008L, 0x0041004100820024L, 0x200200023100804CL,
+            0x0080044001456011L, 0x001000C040002004L, 0x0068420011220480L, 0x2040808008001000L,
+            0x0211510028002500L, 0x0000480120403024L, 0x0100010100040200L, 0x08401A0000C40083L,
+            0x2040008080004022L, 0x1100820A00410020L, 0x4989004100200016L, 0x0001010900100020L,
+            0x8204008080040800L, 0x0020040080020080L, 0x5006014400021008L, 0x0000008600010844L,
+            0x0080004000402000L, 0x0000401000402001L, 0x5001041145002000L, 0x4120823802801000L,
+            0x0004004008080080L, 0x9009000289000400L, 0x0004080184000210L, 0x0008800060800100L,
+            0x8600400080008020L, 0x4000200040008080L, 0x0510200041010018L, 0x180010010021000AL,
+            0x0204000800808005L, 0x002600081006000CL, 0x0200414802840010L, 0x4000408044020001L,
+            0x0000400080102080L, 0x0840804000200380L, 0x0020104020820200L, 0x0108201001018900L,
+            0x1005010800BC3100L, 0x0001000804000300L, 0x1428012842100400L, 0x208000A041040200L,
+            0x9100248000130241L, 0x0982008122449102L, 0x008100400C200011L, 0x8241000608201001L,
+            0x8402008408211002L, 0x0401000400020801L, 0x0812000100880402L, 0x0904002044148102L
+    };
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+            0x80102101080A0042L, 0x0A02440112120004L, 0x00100402892A2010L, 0x810C2C0088004801L,
+            0x0182021000004480L, 0x0221012010030024L, 0x00422D9008080008L, 0x6821128084104040L,
+            0x2224600444C08400L, 0x4048610802008020L, 0x2001160404108204L, 0xB405080841000000L,
+            0x82000202102C8000L, 0x008021140A400000L, 0x0040020201200809L, 0x0A00002108021008L,
+            0x2030082012104148L, 0x0414500208180129L, 0x0810404204044200L, 0x0242002422020000L,
+            0x8004004210220040L, 0x20C200A108190401L, 0x0302100401040240L, 0x1000311700880440L,
+            0x0103080090D03004L, 0x211008001082088AL, 0x1001048110092200L, 0x00200800208204C0L,
+            0x9A40840008802000L, 0x0802CE0001010320L, 0x8091120000425000L, 0x1201418030D20804L,
+            0x80A808C108048400L, 0x0008144284104201L, 0x04040404002A5101L, 0x1808400808008200L,
+            0x0044010010040040L, 0x2104080020821006L, 0x4010009201010122L, 0x4944010022005402L,
+            0xB004026010200440L, 0x00C04210100A04C8L, 0x0020804402044040L, 0x0000002214008800L,
+            0x4000082008201102L, 0x8A04200082080500L, 0x0402900132000500L, 0x4042022221210602L,
+            0x802C00A210100000L, 0x8007804510108C00L, 0x4000020100881004L, 0x0140C60020880110L,
+            0x8080804025044000L, 0x5401402801311000L, 0x0811260E08220100L, 0x8011102080888340L,
+            0x0081010041444000L, 0x2200404608842008L, 0x0204201024020822L, 0x000000C200420201L,
+            0x3810801052220210L, 0x0B000010A0010100L, 0x0084120208280088L, 0x0018090904040880L
+    };
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+    private static final long[] ROOK_ATTACKS;
+    private static final long[] BISHOP_ATTACKS;
+
+    /**
+     * Everything needed to find one square's slider attacks in the shared table
+     */
+    private record Magic(long mask, long magic, int shift, int offset) {
+        int index(long occupied) {
+            return offset + (int) (((occupied & mask) * magic) >>> shift);
+        }
+    }
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = stepAttacks(square, KNIGHT_OFFSETS);
+            KING[square] = stepAttacks(square, KING_OFFSETS);
+            PAWN[0][square] = stepAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN[1][square] = stepAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+
+        ROOK_ATTACKS = buildMagics(ROOK_DIRECTIONS, ROOK_MAGIC_NUMBERS, ROOK_MAGICS);
+        BISHOP_ATTACKS = buildMagics(BISHOP_DIRECTIONS, BISHOP_MAGIC_NUMBERS, BISHOP_MAGICS);
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long toBit = 1L << to;
+                long fromBit = 1L << from;
+                if ((rook(from, 0) & toBit) != 0) {
+                    BETWEEN[from][to] = rook(from, toBit) & rook(to, fromBit);
+                } else if ((bishop(from, 0) & toBit) != 0) {
+                    BETWEEN[from][to] = bishop(from, toBit) & bishop(to, fromBit);
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param color the TeamColor ordinal of the pawn
+     * @return the squares a pawn of that color on the square attacks
+     */
+    static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    static long rook(int square, long occupied) {
+        return ROOK_ATTACKS[ROOK_MAGICS[square].index(occupied)];
+    }
+
+    static long bishop(int square, long occupied) {
+        return BISHOP_ATTACKS[BISHOP_MAGICS[square].index(occupied)];
+    }
+
+    static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    private static long stepAttacks(int square, int[][] offsets) {
+        long attacks = 0;
+        for (int[] offset : offsets) {
+            int row = (square >>> 3) + offset[0];
+            int col = (square & 7) + offset[1];
+            if (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                attacks |= 1L << (row * 8 + col);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Walks each ray until it leaves the board or hits an occupied square,
+     * which is included since it may hold a piece to capture
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * The squares whose occupancy changes a slider's attacks: its rays without
+     * the last square of each, since a piece there blocks nothing further
+     */
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] < 8
+                    && col + direction[1] >= 0 && col + direction[1] < 8) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long[] buildMagics(int[][] directions, long[] magicNumbers, Magic[] magics) {
+        int offset = 0;
+        for (int square = 0; square < 64; square++) {
+            long mask = relevantBlockers(square, directions);
+            magics[square] = new Magic(mask, magicNumbers[square], 64 - Long.bitCount(mask), offset);
+            offset += 1 << Long.bitCount(mask);
+        }
+
+        long[] attacks = new long[offset];
+        for (int square = 0; square < 64; square++) {
+            Magic magic = magics[square];
+            // walk every subset of the blocker mask
+            long blockers = 0;
+            do {
+                long squareAttacks = slidingAttacks(square, blockers, directions);
+                int index = magic.index(blockers);
+                if (attacks[index] != 0 && attacks[index] != squareAttacks) {
+                    throw new IllegalStateException("Bad magic number for square " + square);
+                }
+                attacks[index] = squareAttacks;
+                blockers = (blockers - magic.mask()) & magic.mask();
+            } while (blockers != 0);
+        }
+        return attacks;
+    }
+}
@@ -1,13 +1,17 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * The board is stored as bitboards: one 64-bit occupancy mask per color and
+ * piece type (indexed by {@link ChessPiece#code}) plus one aggregate mask per
+ * color. Bit 0 is row 1 column 1 and bit 63 is row 8 column 8. A parallel
+ * mailbox keeps getPiece a single array load.
  */
 public class ChessBoard {
     @Override
@@ -16,22 +20,41 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(myChessBoard, that.myChessBoard);
+        return Arrays.equals(pieceMasks, that.pieceMasks);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(myChessBoard);
+        return Long.hashCode(zobristKey);
     }
 
 //    @Override
 //    public String toString() {
 //    }
 
-    private ChessPiece[][] myChessBoard;
-    public ChessBoard() {
-        myChessBoard = new ChessPiece[8][8];
+    private static final ChessPiece.PieceType[] BACK_ROW = {
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
+    };
+
+    private long[] pieceMasks;
+    private long[] colorMasks;
+    // piece code + 1 for each square, 0 when the square is empty
+    private byte[] squares;
+    private long zobristKey;
+    // evaluation terms from white's side, kept up to date like the Zobrist key
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+    // one packed record per move made with makeMove, popped by unmakeMove
+    private transient int[] undoStack = new int[32];
+    private transient int undoSize;
 
+    public ChessBoard() {
+        pieceMasks = new long[12];
+        colorMasks = new long[2];
+        squares = new byte[64];
     }
 
     /**
@@ -41,7 +64,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        myChessBoard[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = position.toSquare();
+        removePiece(square);
+        if (piece != null) {
+            putPiece(square, ChessPiece.code(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -52,70 +79,237 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return myChessBoard[position.getRow() - 1][position.getColumn() - 1];
+        int code = squares[position.toSquare()] - 1;
+        return code < 0 ? null : ChessPiece.fromCode(code);
     }
 
     /**
-     * Sets the board to the default starting board
-     * (How the game of chess normally starts)
+     * Gets the Zobrist key of the pieces on this board. The key is kept up to
+     * date as pieces are added, removed and moved, so reading it is free.
+     * It does not include whose turn it is; see {@link ChessGame#getZobristKey()}.
+     *
+     * @return a 64-bit hash of the piece placement
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return material plus piece-square score for the middlegame, positive when white is ahead
+     */
+    int midgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * @return material plus piece-square score for the endgame, positive when white is ahead
+     */
+    int endgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return how much non-pawn material is on the board, up to
+     * {@link PieceSquareTables#MAX_PHASE} for a full set (more after promotions)
+     */
+    int phase() {
+        return phase;
+    }
+
+    /**
+     * @return the piece code on a square, or -1 if the square is empty
+     */
+    int pieceAt(int square) {
+        return squares[square] - 1;
+    }
+
+    /**
+     * @return the occupancy mask for one color and piece type
+     */
+    long pieces(int code) {
+        return pieceMasks[code];
+    }
+
+    /**
+     * @return the occupancy mask for every piece of one team
+     */
+    long pieces(ChessGame.TeamColor color) {
+        return colorMasks[color.ordinal()];
+    }
+
+    /**
+     * Finds a team's king from its occupancy mask, which addPiece and makeMove keep
+     * current, so no squares are scanned.
+     *
+     * @return the square of the team's king (the lowest one if a test board has
+     * several), or -1 if the team has no king on the board
      */
+    int kingSquare(ChessGame.TeamColor color) {
+        long kings = pieceMasks[ChessPiece.code(color, ChessPiece.PieceType.KING)];
+        return kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    /**
+     * @return the occupancy mask for every piece on the board
+     */
+    long occupied() {
+        return colorMasks[0] | colorMasks[1];
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a position. Looks up the
+     * precomputed attacks from the position instead of generating the attacking
+     * team's moves, so it allocates nothing.
+     *
+     * @param position the position to test
+     * @param attacker the team that might be attacking it
+     * @return True if a piece of that team could capture on the position
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attacker) {
+        return isSquareAttacked(position.toSquare(), attacker);
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return isSquareAttacked(square, attacker, occupied());
+    }
+
+    /**
+     * Attack query against a given occupancy, so callers can look through a
+     * piece (such as a king about to step away) without moving it
+     */
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attacker, long occupied) {
+        int color = attacker.ordinal();
+        long queens = pieceMasks[ChessPiece.code(attacker, ChessPiece.PieceType.QUEEN)];
+        // a pawn of the other color standing on the square attacks exactly where the attacking pawns would be
+        return (Attacks.knight(square) & pieceMasks[ChessPiece.code(attacker, ChessPiece.PieceType.KNIGHT)]) != 0
+                || (Attacks.pawn(color ^ 1, square) & pieceMasks[ChessPiece.code(attacker, ChessPiece.PieceType.PAWN)]) != 0
+                || (Attacks.king(square) & pieceMasks[ChessPiece.code(attacker, ChessPiece.PieceType.KING)]) != 0
+                || (Attacks.bishop(square, occupied)
+                        & (pieceMasks[ChessPiece.code(attacker, ChessPiece.PieceType.BISHOP)] | queens)) != 0
+                || (Attacks.rook(square, occupied)
+                        & (pieceMasks[ChessPiece.code(attacker, ChessPiece.PieceType.ROOK)] | queens)) != 0;
+    }
+
+    /**
+     * @return every piece of either team that attacks the square, given an occupancy
+     */
+    long attackersTo(int square, long occupied) {
+        long queens = piecesOfType(ChessPiece.PieceType.QUEEN);
+        return (Attacks.pawn(1, square) & pieceMasks[ChessPiece.code(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN)])
+                | (Attacks.pawn(0, square) & pieceMasks[ChessPiece.code(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN)])
+                | (Attacks.knight(square) & piecesOfType(ChessPiece.PieceType.KNIGHT))
+                | (Attacks.king(square) & piecesOfType(ChessPiece.PieceType.KING))
+                | (Attacks.bishop(square, occupied) & (piecesOfType(ChessPiece.PieceType.BISHOP) | queens))
+                | (Attacks.rook(square, occupied) & (piecesOfType(ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * @return the occupancy mask for one piece type of both teams
+     */
+    long piecesOfType(ChessPiece.PieceType type) {
+        return pieceMasks[ChessPiece.code(ChessGame.TeamColor.WHITE, type)]
+                | pieceMasks[ChessPiece.code(ChessGame.TeamColor.BLACK, type)];
+    }
+
+    void putPiece(int square, int code) {
+        long bit = 1L << square;
+        pieceMasks[code] |= bit;
+        colorMasks[ChessPiece.colorOf(code)] |= bit;
+        squares[square] = (byte) (code + 1);
+        zobristKey ^= Zobrist.piece(code, square);
+        midgameScore += PieceSquareTables.midgame(code, square);
+        endgameScore += PieceSquareTables.endgame(code, square);
+        phase += PieceSquareTables.phase(code);
+    }
+
+    void removePiece(int square) {
+        int code = squares[square] - 1;
+        if (code < 0) {
+            return;
+        }
+        long bit = 1L << square;
+        pieceMasks[code] &= ~bit;
+        colorMasks[ChessPiece.colorOf(code)] &= ~bit;
+        squares[square] = 0;
+        zobristKey ^= Zobrist.piece(code, square);
+        midgameScore -= PieceSquareTables.midgame(code, square);
+        endgameScore -= PieceSquareTables.endgame(code, square);
+        phase -= PieceSquareTables.phase(code);
+    }
+
+    /**
+     * Moves a piece in place, remembering enough on the undo stack for
+     * {@link #unmakeMove} to restore the board exactly. No legality checks
+     * are made.
+     *
+     * @param move a packed {@link Move}; its promotion type, if any, replaces the moving piece
+     */
+    void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        int moved = squares[from] - 1;
+        int captured = squares[to] - 1;
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+        }
+        undoStack[undoSize++] = from | to << 6 | (moved + 1) << 12 | (captured + 1) << 16;
+
+        removePiece(to);
+        removePiece(from);
+        int placed = promotion == null ? moved : ChessPiece.code(ChessPiece.teamOf(moved), promotion);
+        putPiece(to, placed);
+    }
+
+    /**
+     * Takes back the most recent {@link #makeMove}, restoring the captured piece
+     * and undoing any promotion.
+     */
+    void unmakeMove() {
+        int record = undoStack[--undoSize];
+        int from = record & 63;
+        int to = (record >>> 6) & 63;
+        int moved = ((record >>> 12) & 15) - 1;
+        int captured = ((record >>> 16) & 15) - 1;
+
+        removePiece(to);
+        putPiece(from, moved);
+        if (captured >= 0) {
+            putPiece(to, captured);
+        }
+    }
 
     public ChessBoard copyBoard() {
         ChessBoard newBoard = new ChessBoard();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = getPiece(position);
-                if (piece != null) {
-                    newBoard.addPiece(position, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                }
-            }
-        }
+        newBoard.pieceMasks = pieceMasks.clone();
+        newBoard.colorMasks = colorMasks.clone();
+        newBoard.squares = squares.clone();
+        newBoard.zobristKey = zobristKey;
+        newBoard.midgameScore = midgameScore;
+        newBoard.endgameScore = endgameScore;
+        newBoard.phase = phase;
         return newBoard;
     }
 
-
+    /**
+     * Sets the board to the default starting board
+     * (How the game of chess normally starts)
+     */
     public void resetBoard() {
+        Arrays.fill(pieceMasks, 0L);
+        Arrays.fill(colorMasks, 0L);
+        Arrays.fill(squares, (byte) 0);
+        zobristKey = 0;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
 
-        //bottom white row
-        myChessBoard[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        myChessBoard[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        myChessBoard[0][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        myChessBoard[0][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        myChessBoard[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-        myChessBoard[0][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        myChessBoard[0][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        myChessBoard[0][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-
-        // white pawns
-        myChessBoard[1][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        myChessBoard[1][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-
-        //black pawns
-        myChessBoard[6][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        myChessBoard[6][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-
-        // black pieces
-        myChessBoard[7][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        myChessBoard[7][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        myChessBoard[7][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        myChessBoard[7][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-        myChessBoard[7][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-        myChessBoard[7][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        myChessBoard[7][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        myChessBoard[7][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-
+        for (int col = 0; col < 8; col++) {
+            // white pieces on rows 1 and 2, black pieces on rows 8 and 7
+            putPiece(col, ChessPiece.code(ChessGame.TeamColor.WHITE, BACK_ROW[col]));
+            putPiece(8 + col, ChessPiece.code(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            putPiece(48 + col, ChessPiece.code(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            putPiece(56 + col, ChessPiece.code(ChessGame.TeamColor.BLACK, BACK_ROW[col]));
+        }
     }
 }
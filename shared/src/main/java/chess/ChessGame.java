@@ -2,6 +2,7 @@ package chess;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -9,11 +10,26 @@ import java.util.List;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * A ChessGame is not thread-safe, not even for calls that only read the game:
+ * it keeps scratch buffers and the legal moves of the last position asked
+ * about, which every call reuses. Give each thread its own game; the
+ * {@link LegalMoveCache} set with {@link #setMoveCache} is the part that can
+ * be shared.
  */
 public class ChessGame {
 
     private ChessBoard board;
     private TeamColor teamTurn;
+    private int plyCount;
+    private final transient MoveGenerator moveGenerator = new MoveGenerator();
+    private final transient MoveList moveBuffer = new MoveList();
+    private final transient LegalMoveIterator legalMoveIterator = new LegalMoveIterator(moveGenerator);
+    private final transient GameStatusEvaluator statusEvaluator = new GameStatusEvaluator(moveGenerator);
+    // the legal moves last generated for each team, by TeamColor ordinal, and the position key they belong to
+    private final transient int[][] cachedMoves = new int[2][];
+    private final transient long[] cachedMovesKeys = new long[2];
+    private transient LegalMoveCache sharedMoveCache;
 
     public ChessGame() {
         this.board = new ChessBoard();
@@ -38,6 +54,28 @@ public class ChessGame {
         this.teamTurn = team;
     }
 
+    /**
+     * @return how many moves have been made in this game, counting both teams
+     */
+    public int getPlyCount() {
+        return plyCount;
+    }
+
+    void setPlyCount(int plyCount) {
+        this.plyCount = plyCount;
+    }
+
+    /**
+     * Gets the Zobrist key of the current position: the board's piece key
+     * combined with whose turn it is. Equal positions always have equal keys.
+     *
+     * @return a 64-bit hash of the position
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey();
+        return teamTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
     /**
      * Enum identifying the 2 possible teams in a chess game
      */
@@ -47,7 +85,21 @@ public class ChessGame {
     }
 
     /**
-     * Gets a valid moves for a piece at the given location
+     * Shares legal move sets with other games through a cache, so a position
+     * any of them has seen is not generated again
+     *
+     * @param cache the cache to share, or null to stop sharing
+     */
+    public void setMoveCache(LegalMoveCache cache) {
+        this.sharedMoveCache = cache;
+    }
+
+    /**
+     * Gets a valid moves for a piece at the given location.
+     * <p>
+     * The first call for a position generates every legal move of the piece's
+     * team and keeps them, so further calls for the same position, such as one
+     * per piece to highlight moves, only pick out the piece's own moves.
      *
      * @param startPosition the piece to get valid moves for
      * @return Set of valid moves for requested piece, or null if no piece at
@@ -59,24 +111,81 @@ public class ChessGame {
             return List.of();
         }
 
-        Collection<ChessMove> allMoves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new ArrayList<>();
-
-        for (ChessMove move : allMoves) {
-            ChessBoard copiedBoard = board.copyBoard();
-            copiedBoard.addPiece(move.getEndPosition(), piece);
-            copiedBoard.addPiece(move.getStartPosition(), null);
+        int from = startPosition.toSquare();
+        List<ChessMove> moves = new ArrayList<>();
+        for (int move : legalMovesOf(piece.getTeamColor())) {
+            if (Move.from(move) == from) {
+                moves.add(Move.toChessMove(move));
+            }
+        }
+        return moves;
+    }
 
-            ChessGame tempGame = new ChessGame();
-            tempGame.setBoard(copiedBoard);
-            tempGame.setTeamTurn(teamTurn);
+    /**
+     * Gets all legal moves of a team in the current position, from this game's
+     * cache, then the shared cache, and only then by generating them. The
+     * cache is checked against the position's Zobrist key, so changes made
+     * straight to the board are noticed too.
+     */
+    private int[] legalMovesOf(TeamColor color) {
+        long key = board.getZobristKey() ^ (color == TeamColor.BLACK ? Zobrist.BLACK_TO_MOVE : 0);
+        int index = color.ordinal();
+        if (cachedMoves[index] != null && cachedMovesKeys[index] == key) {
+            return cachedMoves[index];
+        }
 
-            if (!tempGame.isInCheck(piece.getTeamColor())) {
-                validMoves.add(move);
+        int[] moves = sharedMoveCache == null ? null : sharedMoveCache.get(key);
+        if (moves == null) {
+            moveBuffer.clear();
+            moveGenerator.generate(board, color, moveBuffer);
+            moves = moveBuffer.toArray();
+            if (sharedMoveCache != null) {
+                sharedMoveCache.put(key, moves);
             }
         }
+        cachedMoves[index] = moves;
+        cachedMovesKeys[index] = key;
+        return moves;
+    }
+
+    private void clearMoveCache() {
+        cachedMoves[0] = null;
+        cachedMoves[1] = null;
+    }
 
-        return validMoves;
+    /**
+     * Iterates over the legal moves of a team, generating them as the iterator
+     * is advanced: the captures and promotions of each piece in turn, then the
+     * other moves of each piece in turn. The board must not change while
+     * iterating.
+     *
+     * @param teamColor the team whose moves to iterate over
+     * @return an iterator over the team's legal moves, captures first
+     */
+    public Iterator<ChessMove> legalMoves(TeamColor teamColor) {
+        LegalMoveIterator moves = new LegalMoveIterator(new MoveGenerator()).reset(board, teamColor);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return moves.hasNext();
+            }
+
+            @Override
+            public ChessMove next() {
+                return Move.toChessMove(moves.nextInt());
+            }
+        };
+    }
+
+    /**
+     * Determines if a team has any legal move, generating moves only until the
+     * first one is found
+     *
+     * @param teamColor which team to check
+     * @return True if the team has at least one legal move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        return legalMoveIterator.reset(board, teamColor).hasNext();
     }
 
     /**
@@ -94,14 +203,6 @@ public class ChessGame {
             throw new InvalidMoveException("You can't do that, that piece doesn't do that.");
         }
 
-        ChessBoard copiedBoard = board.copyBoard();
-        copiedBoard.addPiece(move.getEndPosition(), piece);
-        copiedBoard.addPiece(move.getStartPosition(), null);
-
-        if (isInCheck(teamTurn)) {
-            throw new InvalidMoveException("You can't do that, your king is still in check!");
-        }
-
         ChessPiece newPiece = piece;
         if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
             int lastRow = (piece.getTeamColor() == TeamColor.WHITE) ? 8 : 1;
@@ -117,6 +218,8 @@ public class ChessGame {
 
         board.addPiece(move.getEndPosition(), newPiece);
         board.addPiece(move.getStartPosition(), null);
+        clearMoveCache();
+        plyCount++;
 
         teamTurn = (teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
@@ -138,20 +241,8 @@ public class ChessGame {
     }
 
     private ChessPosition findKingPosition(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (isKingOfColor(piece, teamColor)) {
-                    return position;
-                }
-            }
-        }
-        return null;
-    }
-
-    private boolean isKingOfColor(ChessPiece piece, TeamColor teamColor) {
-        return piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING;
+        int square = board.kingSquare(teamColor);
+        return square < 0 ? null : ChessPosition.fromSquare(square);
     }
 
     private TeamColor getOpponentColor(TeamColor teamColor) {
@@ -159,70 +250,28 @@ public class ChessGame {
     }
 
     private boolean isPositionUnderAttack(ChessPosition position, TeamColor opponentColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition attackerPosition = new ChessPosition(row, col);
-                ChessPiece attacker = board.getPiece(attackerPosition);
-
-                if (isOpponentPiece(attacker, opponentColor) && canAttackPosition(attacker, attackerPosition, position)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return board.isSquareAttacked(position, opponentColor);
     }
 
-    private boolean isOpponentPiece(ChessPiece piece, TeamColor opponentColor) {
-        return piece != null && piece.getTeamColor() == opponentColor;
-    }
 
-    private boolean canAttackPosition(ChessPiece piece, ChessPosition from, ChessPosition target) {
-        for (ChessMove move : piece.pieceMoves(board, from)) {
-            if (move.getEndPosition().equals(target)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Determines whether a team is in check, checkmate or stalemate in a single
+     * pass, which stops looking for legal moves at the first one found
+     *
+     * @param teamColor which team to check
+     * @return where the game stands for that team
+     */
+    public GameStatus getGameStatus(TeamColor teamColor) {
+        return statusEvaluator.evaluate(board, teamColor);
     }
 
-
     /**
      * Determines if the given team is in checkmate
      * @param teamColor which team to check for checkmate
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
-        return checkForCheck(teamColor);
-    }
-
-    private boolean checkForCheck(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece == null || piece.getTeamColor() != teamColor) {
-                    continue;
-                }
-
-                for (ChessMove move : piece.pieceMoves(board, position)) {
-                    ChessBoard copiedBoard = board.copyBoard();
-                    copiedBoard.addPiece(move.getEndPosition(), piece);
-                    copiedBoard.addPiece(move.getStartPosition(), null);
-
-                    ChessGame tempGame = new ChessGame();
-                    tempGame.setBoard(copiedBoard);
-
-                    if (!tempGame.isInCheck(teamColor)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return getGameStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
 
@@ -233,11 +282,23 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
-        }
+        return getGameStatus(teamColor) == GameStatus.STALEMATE;
+    }
 
-        return checkForCheck(teamColor);
+    /**
+     * Copies the game: its board, whose turn it is and how many moves have been
+     * made. Moves made on the copy leave this game as it was. The copy shares
+     * this game's {@link LegalMoveCache}, if it has one.
+     *
+     * @return a new game in the same position
+     */
+    public ChessGame copyGame() {
+        ChessGame copy = new ChessGame();
+        copy.board = board.copyBoard();
+        copy.teamTurn = teamTurn;
+        copy.plyCount = plyCount;
+        copy.sharedMoveCache = sharedMoveCache;
+        return copy;
     }
 
     /**
@@ -246,6 +307,7 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board =board;
+        clearMoveCache();
     }
 
     /**
@@ -35,6 +35,44 @@ public class ChessPiece {
 
     }
 
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final ChessPiece[] BY_CODE = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : TYPES) {
+                BY_CODE[code(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    /**
+     * Packs a color and piece type into a single index in [0, 12), white pieces first.
+     * This is the index ChessBoard uses for its per-piece occupancy masks.
+     */
+    static int code(ChessGame.TeamColor color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return the shared piece instance for a code produced by {@link #code}
+     */
+    static ChessPiece fromCode(int code) {
+        return BY_CODE[code];
+    }
+
+    static int colorOf(int code) {
+        return code / 6;
+    }
+
+    static ChessGame.TeamColor teamOf(int code) {
+        return code < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    static PieceType typeOf(int code) {
+        return TYPES[code % 6];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -7,42 +7,16 @@ import java.util.List;
 abstract class ChessPieceCalculator {
     abstract Collection<ChessMove> possibleMoves(ChessBoard board, ChessPosition myPosition, ChessGame.TeamColor color);
 
-    Collection<ChessMove> possibleMovesHelper(ChessBoard board, ChessPosition myPosition, ChessGame.TeamColor color, int [][] possibleMoves) {
+    /**
+     * Turns a mask of attacked squares into moves, leaving out squares held by the moving team
+     */
+    Collection<ChessMove> possibleMovesHelper(ChessBoard board, ChessPosition myPosition, ChessGame.TeamColor color, long attacks) {
         List<ChessMove> moves = new ArrayList<>();
 
-        for (int[] direction : possibleMoves) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
-
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-                ChessPosition newPosition = new ChessPosition(row, col);
-
-                if (!isInBounds(newPosition)) {
-                    break;
-                }
-
-                ChessPiece finishPiece = board.getPiece(newPosition);
-                if (finishPiece == null) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                } else {
-                    if (finishPiece.getTeamColor() != color) {
-                        moves.add(new ChessMove(myPosition, newPosition, null));
-                    }
-                    break;
-                }
-            }
-
-
+        for (long targets = attacks & ~board.pieces(color); targets != 0; targets &= targets - 1) {
+            moves.add(new ChessMove(myPosition, ChessPosition.fromSquare(Long.numberOfTrailingZeros(targets)), null));
         }
 
         return moves;
     }
-
-    private boolean isInBounds(ChessPosition position) {
-        int row = position.getRow();
-        int col = position.getColumn();
-        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
-    }
 }
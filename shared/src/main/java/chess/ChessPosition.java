@@ -26,12 +26,45 @@ public class ChessPosition {
         return Objects.hash(row, col);
     }
 
+    @Override
+    public String toString() {
+        // column letter then row number, like "e4"
+        return (char) ('a' + col - 1) + String.valueOf(row);
+    }
+
 
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
+    /**
+     * @return the square index of this position, 0 for row 1 column 1 up to 63 for row 8 column 8
+     * @throws IndexOutOfBoundsException if the position is off the board, as
+     *                                   otherwise a column past the edge would land on the next row
+     */
+    int toSquare() {
+        if (((row - 1) | (col - 1)) >>> 3 != 0) {
+            throw new IndexOutOfBoundsException("Position " + row + "," + col + " is off the board");
+        }
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the shared position instance for a square index produced by {@link #toSquare}
+     */
+    static ChessPosition fromSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -0,0 +1,26 @@
+package chess;
+
+/**
+ * Scores a position for the search. Scores are in centipawns from the point of
+ * view of the side to move, so the search can negate them between plies.
+ * <p>
+ * The board keeps running middlegame and endgame totals of material and
+ * piece-square scores as pieces move, so evaluating is a blend of two numbers
+ * however many pieces are on the board.
+ */
+final class Evaluator {
+
+    private Evaluator() {
+    }
+
+    /**
+     * @return the score, positive when the given team is ahead
+     */
+    static int evaluate(ChessBoard board, ChessGame.TeamColor color) {
+        // fully middlegame at full material, fully endgame with only kings and pawns left
+        int phase = Math.min(board.phase(), PieceSquareTables.MAX_PHASE);
+        int score = (board.midgameScore() * phase + board.endgameScore() * (PieceSquareTables.MAX_PHASE - phase))
+                / PieceSquareTables.MAX_PHASE;
+        return color == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,15 @@
+package chess;
+
+/**
+ * Where a game stands for the side to move
+ */
+public enum GameStatus {
+    /** The side to move has legal moves and is not in check */
+    ONGOING,
+    /** The side to move is in check but can get out of it */
+    CHECK,
+    /** The side to move is in check and has no legal move */
+    CHECKMATE,
+    /** The side to move is not in check but has no legal move */
+    STALEMATE
+}
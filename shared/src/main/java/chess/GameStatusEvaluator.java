@@ -0,0 +1,60 @@
+package chess;
+
+/**
+ * Works out a team's {@link GameStatus} in one pass: whether it is in check
+ * comes out of finding checks and pins once, and the search for a legal move
+ * stops at the first one found.
+ * <p>
+ * In check, the moves most likely to answer it are tried first: king moves,
+ * then captures of the checking piece. Only if neither works are the other
+ * pieces tried for a block. In double check only the king can move, so nothing
+ * else is tried at all.
+ */
+final class GameStatusEvaluator {
+
+    private final MoveGenerator generator;
+    private final MoveList scratch = new MoveList(32);
+
+    /**
+     * @param generator the generator to use, which is busy during each evaluate call
+     */
+    GameStatusEvaluator(MoveGenerator generator) {
+        this.generator = generator;
+    }
+
+    GameStatus evaluate(ChessBoard board, ChessGame.TeamColor color) {
+        generator.prepare(board, color);
+        long checkers = generator.checkers();
+        long own = board.pieces(color);
+        if (checkers == 0) {
+            return hasMove(own) ? GameStatus.ONGOING : GameStatus.STALEMATE;
+        }
+
+        int king = board.kingSquare(color);
+        if (hasMove(1L << king)) {
+            return GameStatus.CHECK;
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return GameStatus.CHECKMATE;
+        }
+        long capturers = board.attackersTo(Long.numberOfTrailingZeros(checkers), board.occupied()) & own & ~(1L << king);
+        if (hasMove(capturers)) {
+            return GameStatus.CHECK;
+        }
+        return hasMove(own & ~capturers & ~(1L << king)) ? GameStatus.CHECK : GameStatus.CHECKMATE;
+    }
+
+    /**
+     * @return whether any of the pieces has a legal move
+     */
+    private boolean hasMove(long pieces) {
+        for (; pieces != 0; pieces &= pieces - 1) {
+            scratch.clear();
+            generator.generateAll(Long.numberOfTrailingZeros(pieces), scratch);
+            if (!scratch.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
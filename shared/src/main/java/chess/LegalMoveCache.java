@@ -0,0 +1,76 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of legal move sets by position, which any number of games
+ * can share. Games that pass through the same positions, such as the
+ * openings most games start with, then generate each position's moves once
+ * between them. When full, the least recently used position is dropped.
+ * <p>
+ * Positions are keyed by Zobrist key including the side to move, so two
+ * different positions only share an entry in the rare case their 64-bit keys
+ * collide. All methods are thread safe.
+ */
+public class LegalMoveCache {
+
+    private final Map<Long, int[]> moves;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxPositions how many positions to keep before dropping the least recently used
+     */
+    public LegalMoveCache(int maxPositions) {
+        if (maxPositions < 1) {
+            throw new IllegalArgumentException("maxPositions must be at least 1");
+        }
+        this.moves = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > maxPositions;
+            }
+        };
+    }
+
+    /**
+     * @return the packed moves stored for the position, which must not be
+     * changed, or null if there are none
+     */
+    int[] get(long key) {
+        int[] found;
+        synchronized (moves) {
+            found = moves.get(key);
+        }
+        (found == null ? misses : hits).increment();
+        return found;
+    }
+
+    void put(long key, int[] legalMoves) {
+        synchronized (moves) {
+            moves.put(key, legalMoves);
+        }
+    }
+
+    public int size() {
+        synchronized (moves) {
+            return moves.size();
+        }
+    }
+
+    /**
+     * @return how many lookups found their position
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how many lookups did not find their position
+     */
+    public long misses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Iterates over a team's legal moves as packed {@link Move} ints, generating
+ * them only as they are pulled: the captures and promotions of one piece at a
+ * time, then, once every piece has had its captures, the quiet moves of one
+ * piece at a time. A caller that only needs to know whether a move exists, or
+ * that stops at the first good capture, never pays for the rest.
+ * <p>
+ * The board must not change while iterating. An iterator can be reset and
+ * reused so that asking again allocates nothing.
+ */
+final class LegalMoveIterator implements PrimitiveIterator.OfInt {
+
+    private final MoveGenerator generator;
+    // the moves of the piece being iterated over
+    private final MoveList pieceMoves = new MoveList(32);
+    private long own;
+    // pieces of the current stage whose moves have not been generated yet
+    private long remaining;
+    private boolean quiets;
+    private int index;
+
+    /**
+     * @param generator the generator to use, which is busy until iteration ends
+     */
+    LegalMoveIterator(MoveGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Starts over on the moves of a team
+     *
+     * @return this iterator
+     */
+    LegalMoveIterator reset(ChessBoard board, ChessGame.TeamColor color) {
+        generator.prepare(board, color);
+        own = board.pieces(color);
+        remaining = own;
+        quiets = false;
+        pieceMoves.clear();
+        index = 0;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index == pieceMoves.size()) {
+            if (remaining == 0) {
+                if (quiets) {
+                    return false;
+                }
+                quiets = true;
+                remaining = own;
+                continue;
+            }
+            int from = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            pieceMoves.clear();
+            index = 0;
+            if (quiets) {
+                generator.generateQuiets(from, pieceMoves);
+            } else {
+                generator.generateCaptures(from, pieceMoves);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pieceMoves.get(index++);
+    }
+}
@@ -0,0 +1,53 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move generation allocates nothing.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square, bits 12-14 the
+ * promotion piece type (ordinal + 1, or 0 for none) and bit 15 is set when
+ * the move captures. {@link ChessMove} objects are only built at the public
+ * API boundary.
+ */
+final class Move {
+
+    /** Never a real move, since the start and end squares are the same */
+    static final int NONE = 0;
+
+    private static final int CAPTURE = 1 << 15;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    static int of(int from, int to, ChessPiece.PieceType promotion, boolean capture) {
+        int move = from | to << 6;
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        return capture ? move | CAPTURE : move;
+    }
+
+    static int from(int move) {
+        return move & 63;
+    }
+
+    static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    static ChessPiece.PieceType promotion(int move) {
+        int promotion = (move >>> 12) & 7;
+        return promotion == 0 ? null : TYPES[promotion - 1];
+    }
+
+    static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.fromSquare(from(move)), ChessPosition.fromSquare(to(move)), promotion(move));
+    }
+}
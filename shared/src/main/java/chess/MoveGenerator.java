@@ -0,0 +1,239 @@
+package chess;
+
+/**
+ * Generates only legal moves for one team.
+ * <p>
+ * Pieces giving check and pieces absolutely pinned to their king are found once
+ * per position from the king's square using the attack tables. Moves are then
+ * kept or dropped by mask tests alone, so no candidate move is played out and
+ * tested for check. Moves are written as packed {@link Move} ints into a
+ * caller-owned {@link MoveList}. A generator keeps scratch state between calls
+ * and is not thread safe.
+ */
+final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+    private static final long LAST_ROWS = 0xFF000000000000FFL;
+
+    // for each pinned piece, the squares from its king up to and including the pinning piece
+    private final long[] pinRays = new long[64];
+
+    private ChessBoard board;
+    private ChessGame.TeamColor us;
+    private ChessGame.TeamColor them;
+    private long own;
+    private long enemy;
+    private long occupied;
+    private long checkers;
+    private long pinned;
+    // where a non-king move has to land: anywhere when not in check, otherwise on the
+    // checking piece or between it and the king, and nowhere in double check
+    private long evasionMask;
+    // squares moves may land on besides the rules, so captures and quiet moves can be generated apart;
+    // pawns have their own mask since promotions count as captures
+    private long targetMask;
+    private long pawnTargetMask;
+
+    /**
+     * Adds every legal move for the given team to the list
+     */
+    void generate(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generate(board, color, -1L, -1L, moves);
+    }
+
+    /**
+     * Adds the legal captures and promotions for the given team to the list
+     */
+    void generateCaptures(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        long enemyPieces = board.pieces(color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        generate(board, color, enemyPieces, enemyPieces | LAST_ROWS, moves);
+    }
+
+    /**
+     * Adds the legal moves for the given team that neither capture nor promote
+     */
+    void generateQuiets(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        long enemyPieces = board.pieces(color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        generate(board, color, ~enemyPieces, ~(enemyPieces | LAST_ROWS), moves);
+    }
+
+    private void generate(ChessBoard board, ChessGame.TeamColor color, long targets, long pawnTargets, MoveList moves) {
+        analyze(board, color);
+        targetMask = targets;
+        pawnTargetMask = pawnTargets;
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            generate(Long.numberOfTrailingZeros(pieces), moves);
+        }
+    }
+
+    /**
+     * Adds the legal moves of the piece on one square, which must belong to the given team
+     */
+    void generate(ChessBoard board, ChessGame.TeamColor color, int from, MoveList moves) {
+        analyze(board, color);
+        targetMask = -1L;
+        pawnTargetMask = -1L;
+        generate(from, moves);
+    }
+
+    /**
+     * Finds checks and pins for a team so its moves can then be generated a
+     * piece at a time with {@link #generateCaptures(int, MoveList)} and
+     * {@link #generateQuiets(int, MoveList)}, until the next call of any
+     * other generate method
+     */
+    void prepare(ChessBoard board, ChessGame.TeamColor color) {
+        analyze(board, color);
+    }
+
+    /**
+     * Adds the legal moves of the piece on one square of the prepared team
+     */
+    void generateAll(int from, MoveList moves) {
+        targetMask = -1L;
+        pawnTargetMask = -1L;
+        generate(from, moves);
+    }
+
+    /**
+     * Adds the legal captures and promotions of the piece on one square of the prepared team
+     */
+    void generateCaptures(int from, MoveList moves) {
+        targetMask = enemy;
+        pawnTargetMask = enemy | LAST_ROWS;
+        generate(from, moves);
+    }
+
+    /**
+     * Adds the legal moves of the piece on one square of the prepared team
+     * that neither capture nor promote
+     */
+    void generateQuiets(int from, MoveList moves) {
+        targetMask = ~enemy;
+        pawnTargetMask = ~(enemy | LAST_ROWS);
+        generate(from, moves);
+    }
+
+    /**
+     * @return whether the team passed to the last generate call is in check
+     */
+    boolean inCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @return the enemy pieces giving check in the last prepared or generated position
+     */
+    long checkers() {
+        return checkers;
+    }
+
+    private void analyze(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.us = color;
+        this.them = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        own = board.pieces(us);
+        enemy = board.pieces(them);
+        occupied = own | enemy;
+        checkers = 0;
+        pinned = 0;
+        evasionMask = -1L;
+
+        int king = board.kingSquare(color);
+        if (king < 0) {
+            return;
+        }
+        checkers = board.attackersTo(king, occupied) & enemy;
+
+        // enemy sliders that would hit the king if our own pieces were not in the way
+        long queens = board.pieces(ChessPiece.code(them, ChessPiece.PieceType.QUEEN));
+        long snipers = (Attacks.rook(king, enemy) & (board.pieces(ChessPiece.code(them, ChessPiece.PieceType.ROOK)) | queens))
+                | (Attacks.bishop(king, enemy) & (board.pieces(ChessPiece.code(them, ChessPiece.PieceType.BISHOP)) | queens));
+        for (; snipers != 0; snipers &= snipers - 1) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            long blockers = Attacks.between(king, sniper) & occupied;
+            // exactly one piece in the way, and it is ours
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+                pinRays[Long.numberOfTrailingZeros(blockers)] = Attacks.between(king, sniper) | (1L << sniper);
+            }
+        }
+
+        int checkCount = Long.bitCount(checkers);
+        if (checkCount == 1) {
+            evasionMask = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        } else if (checkCount > 1) {
+            evasionMask = 0;
+        }
+    }
+
+    private void generate(int from, MoveList moves) {
+        long targets;
+        switch (ChessPiece.typeOf(board.pieceAt(from))) {
+            case KING -> {
+                generateKingMoves(from, moves);
+                return;
+            }
+            case PAWN -> {
+                generatePawnMoves(from, moves);
+                return;
+            }
+            case KNIGHT -> targets = Attacks.knight(from);
+            case BISHOP -> targets = Attacks.bishop(from, occupied);
+            case ROOK -> targets = Attacks.rook(from, occupied);
+            default -> targets = Attacks.queen(from, occupied);
+        }
+        for (targets &= ~own & legalTargets(from) & targetMask; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(Move.of(from, to, null, (enemy & (1L << to)) != 0));
+        }
+    }
+
+    private void generatePawnMoves(int from, MoveList moves) {
+        int step = us == ChessGame.TeamColor.WHITE ? 8 : -8;
+        int startRow = us == ChessGame.TeamColor.WHITE ? 1 : 6;
+
+        long targets = Attacks.pawn(us.ordinal(), from) & enemy;
+        int oneForward = from + step;
+        if (oneForward >= 0 && oneForward < 64 && (occupied & (1L << oneForward)) == 0) {
+            targets |= 1L << oneForward;
+            int twoForward = oneForward + step;
+            if ((from >>> 3) == startRow && (occupied & (1L << twoForward)) == 0) {
+                targets |= 1L << twoForward;
+            }
+        }
+
+        for (targets &= legalTargets(from) & pawnTargetMask; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            boolean capture = (enemy & (1L << to)) != 0;
+            if ((LAST_ROWS & (1L << to)) == 0) {
+                moves.add(Move.of(from, to, null, capture));
+                continue;
+            }
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                moves.add(Move.of(from, to, promotion, capture));
+            }
+        }
+    }
+
+    private void generateKingMoves(int from, MoveList moves) {
+        // take the king out of the occupancy so sliders see through the square it is leaving
+        long withoutKing = occupied & ~(1L << from);
+        for (long targets = Attacks.king(from) & ~own & targetMask; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (!board.isSquareAttacked(to, them, withoutKing)) {
+                moves.add(Move.of(from, to, null, (enemy & (1L << to)) != 0));
+            }
+        }
+    }
+
+    private long legalTargets(int from) {
+        if ((pinned & (1L << from)) != 0) {
+            return evasionMask & pinRays[from];
+        }
+        return evasionMask;
+    }
+}
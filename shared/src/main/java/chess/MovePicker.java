@@ -0,0 +1,246 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Hands out the legal moves of a position one at a time, best guesses first,
+ * so that alpha-beta cutoffs come early.
+ * <p>
+ * The order is: the move the transposition table remembers for the position,
+ * then captures and promotions by most valuable victim and least valuable
+ * attacker (MVV-LVA), holding back any that lose material by static exchange,
+ * then the killer moves (quiet moves that caused a cutoff at the same ply in
+ * a sibling position), then the other quiet moves by their history score, and
+ * last the held back captures. Each stage is generated only when reached, so a
+ * cutoff on the hash move or a capture never generates the quiet moves, and
+ * within a stage the next move is found by one selection sort pass over the
+ * scores rather than by sorting them all.
+ * <p>
+ * One picker serves one ply of the search and is reused for every node at it.
+ */
+final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int KILLERS = 3;
+    private static final int GENERATE_QUIETS = 4;
+    private static final int QUIETS = 5;
+    private static final int BAD_CAPTURES = 6;
+    private static final int DONE = 7;
+
+    private final MoveList moves = new MoveList();
+    private final MoveList badCaptures = new MoveList();
+    // legality checks for the hash and killer moves, which come from other positions
+    private final MoveList scratch = new MoveList();
+    private int[] scores = new int[64];
+
+    private ChessBoard board;
+    private ChessGame.TeamColor color;
+    private MoveGenerator generator;
+    private int hashMove;
+    private final int[] killers = new int[2];
+    private int[] history;
+    private boolean quiescence;
+    private boolean inCheck;
+    private int stage;
+    private int index;
+
+    /**
+     * Starts picking every legal move of a position
+     *
+     * @param hashMove the table's move for the position, or {@link Move#NONE}
+     * @param killers  the killer moves for this ply, any of which may be {@link Move#NONE}
+     * @param history  quiet move scores, indexed by {@link #historyIndex}
+     */
+    void init(ChessBoard board, ChessGame.TeamColor color, MoveGenerator generator,
+              int hashMove, int[] killers, int[] history) {
+        this.board = board;
+        this.color = color;
+        this.generator = generator;
+        this.hashMove = hashMove;
+        this.killers[0] = killers[0];
+        this.killers[1] = killers[1];
+        this.history = history;
+        this.quiescence = false;
+        this.badCaptures.clear();
+        this.stage = HASH_MOVE;
+    }
+
+    /**
+     * Starts picking only the captures and promotions that do not lose material,
+     * or every legal move when the side to move is in check. The captures are
+     * generated straight away, so {@link #inCheck()} is known before the first move.
+     */
+    void initQuiescence(ChessBoard board, ChessGame.TeamColor color, MoveGenerator generator) {
+        this.board = board;
+        this.color = color;
+        this.generator = generator;
+        this.hashMove = Move.NONE;
+        this.killers[0] = Move.NONE;
+        this.killers[1] = Move.NONE;
+        this.history = null;
+        this.quiescence = true;
+        this.badCaptures.clear();
+        generateCaptures();
+        this.stage = GOOD_CAPTURES;
+    }
+
+    /**
+     * @return whether the side to move is in check, known once any moves have been generated
+     */
+    boolean inCheck() {
+        return inCheck;
+    }
+
+    /**
+     * @return the next move, or {@link Move#NONE} when there are no more
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE -> {
+                    stage = GENERATE_CAPTURES;
+                    if (hashMove != Move.NONE && isLegal(hashMove)) {
+                        return hashMove;
+                    }
+                }
+                case GENERATE_CAPTURES -> {
+                    generateCaptures();
+                    stage = GOOD_CAPTURES;
+                }
+                case GOOD_CAPTURES -> {
+                    if (index < moves.size()) {
+                        int move = pickBest();
+                        if (move == hashMove) {
+                            continue;
+                        }
+                        if (!StaticExchange.isAtLeast(board, move, 0)) {
+                            // in quiescence a losing capture is only worth searching as a check evasion
+                            if (!quiescence || inCheck) {
+                                badCaptures.add(move);
+                            }
+                            continue;
+                        }
+                        return move;
+                    }
+                    stage = quiescence && !inCheck ? DONE : KILLERS;
+                    index = 0;
+                }
+                case KILLERS -> {
+                    if (index < killers.length) {
+                        int killer = killers[index++];
+                        if (killer != Move.NONE && killer != hashMove && isLegal(killer)) {
+                            return killer;
+                        }
+                        continue;
+                    }
+                    stage = GENERATE_QUIETS;
+                }
+                case GENERATE_QUIETS -> {
+                    moves.clear();
+                    generator.generateQuiets(board, color, moves);
+                    ensureScoreCapacity();
+                    for (int i = 0; i < moves.size(); i++) {
+                        int move = moves.get(i);
+                        scores[i] = history == null ? 0 : history[historyIndex(color, move)];
+                    }
+                    index = 0;
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    if (index < moves.size()) {
+                        int move = pickBest();
+                        if (move != hashMove && move != killers[0] && move != killers[1]) {
+                            return move;
+                        }
+                        continue;
+                    }
+                    index = 0;
+                    stage = BAD_CAPTURES;
+                }
+                case BAD_CAPTURES -> {
+                    if (index < badCaptures.size()) {
+                        return badCaptures.get(index++);
+                    }
+                    stage = DONE;
+                }
+                default -> {
+                    return Move.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return where a quiet move's score lives in a history table of 2 * 64 * 64 entries
+     */
+    static int historyIndex(ChessGame.TeamColor color, int move) {
+        return color.ordinal() << 12 | Move.from(move) << 6 | Move.to(move);
+    }
+
+    private void generateCaptures() {
+        moves.clear();
+        generator.generateCaptures(board, color, moves);
+        inCheck = generator.inCheck();
+        ensureScoreCapacity();
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = mvvLva(moves.get(i));
+        }
+        index = 0;
+    }
+
+    private int mvvLva(int move) {
+        int victim = board.pieceAt(Move.to(move));
+        int attackerType = board.pieceAt(Move.from(move)) % 6;
+        int score = victim < 0 ? 0 : StaticExchange.PIECE_VALUES[victim % 6] * 16;
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            score += StaticExchange.PIECE_VALUES[promotion.ordinal()] * 16;
+        }
+        // a king can only capture safely, so it counts as the cheapest attacker
+        return attackerType == ChessPiece.PieceType.KING.ordinal() ? score : score - StaticExchange.PIECE_VALUES[attackerType];
+    }
+
+    /**
+     * One selection sort step: swaps the best scored move left in the stage to
+     * the current index and returns it
+     */
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        int score = scores[best];
+        moves.set(best, moves.get(index));
+        scores[best] = scores[index];
+        moves.set(index, move);
+        scores[index] = score;
+        index++;
+        return move;
+    }
+
+    private boolean isLegal(int move) {
+        int piece = board.pieceAt(Move.from(move));
+        if (piece < 0 || ChessPiece.teamOf(piece) != color) {
+            return false;
+        }
+        scratch.clear();
+        generator.generate(board, color, Move.from(move), scratch);
+        for (int i = 0; i < scratch.size(); i++) {
+            if (scratch.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureScoreCapacity() {
+        if (scores.length < moves.size()) {
+            scores = Arrays.copyOf(scores, Math.max(moves.size(), scores.length * 2));
+        }
+    }
+}
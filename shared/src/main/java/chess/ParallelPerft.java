@@ -0,0 +1,146 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft on a {@link ForkJoinPool}, for depths too deep to count on one thread.
+ * <p>
+ * The move tree is split into one task per move at the root and again per
+ * move at the second ply, so there are hundreds of similar sized tasks to
+ * balance over the pool. Each task plays its moves on its own board copy and
+ * counts its subtree with an ordinary {@link Perft}. If a cache is given, all
+ * tasks share it, and a subtree reached again through a different move order
+ * is counted once.
+ */
+public class ParallelPerft {
+
+    // how many plies below the root still get one task per move
+    private static final int SPLIT_PLIES = 2;
+    // smaller subtrees are counted in place; splitting them costs more than it saves
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private final ForkJoinPool pool;
+    private final PerftCache cache;
+
+    /**
+     * Counts on the common pool, with no cache
+     */
+    public ParallelPerft(ChessGame game) {
+        this(game, ForkJoinPool.commonPool(), 0);
+    }
+
+    /**
+     * @param game           the position to count from, left unchanged
+     * @param pool           the pool to count on
+     * @param cacheMegabytes size of the shared subtree cache, or 0 for no cache
+     */
+    public ParallelPerft(ChessGame game, ForkJoinPool pool, int cacheMegabytes) {
+        this.board = game.getBoard().copyBoard();
+        this.teamTurn = game.getTeamTurn();
+        this.pool = pool;
+        this.cache = cacheMegabytes > 0 ? new PerftCache(cacheMegabytes) : null;
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     *
+     * @param depth how many moves to look ahead, at least 0
+     * @return the leaf count and how long it took
+     */
+    public Perft.Result run(int depth) {
+        long start = System.nanoTime();
+        long nodes = pool.invoke(new CountTask(board.copyBoard(), teamTurn, depth, SPLIT_PLIES));
+        return new Perft.Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Splits the count by first move, like {@link Perft#divide}
+     *
+     * @param depth how many moves to look ahead, at least 1
+     * @return the leaf count below each legal first move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        MoveList moves = new MoveList();
+        new MoveGenerator().generate(board, teamTurn, moves);
+        List<CountTask> tasks = childTasks(board, teamTurn, moves, depth - 1, SPLIT_PLIES - 1);
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(Move.toChessMove(moves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    private List<CountTask> childTasks(ChessBoard parent, ChessGame.TeamColor color, MoveList moves,
+                                       int depth, int splitPlies) {
+        List<CountTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            ChessBoard child = parent.copyBoard();
+            child.makeMove(moves.get(i));
+            tasks.add(new CountTask(child, Perft.opponent(color), depth, splitPlies));
+        }
+        return tasks;
+    }
+
+    /**
+     * Counts one subtree, either in place or by forking a task per move
+     */
+    @SuppressWarnings("serial") // tasks only live inside one run, and are never serialized
+    private class CountTask extends RecursiveTask<Long> {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor color;
+        private final int depth;
+        private final int splitPlies;
+
+        CountTask(ChessBoard board, ChessGame.TeamColor color, int depth, int splitPlies) {
+            this.board = board;
+            this.color = color;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth < MIN_SPLIT_DEPTH) {
+                return new Perft(board, color, cache).nodes(depth);
+            }
+            MoveList moves = new MoveList();
+            new MoveGenerator().generate(board, color, moves);
+            List<CountTask> tasks = childTasks(board, color, moves, depth - 1, splitPlies - 1);
+            invokeAll(tasks);
+            long nodes = 0;
+            for (CountTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Runs perft from the starting position on all cores and prints the speed.
+     * Usage: ParallelPerft [depth] [cacheMegabytes]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int cacheMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        ParallelPerft perft = new ParallelPerft(new ChessGame(), ForkJoinPool.commonPool(), cacheMegabytes);
+
+        Perft.Result result = perft.run(depth);
+        System.out.printf("perft(%d) = %d in %d ms, %d nodes/sec on %d threads%n", depth, result.nodes(),
+                result.elapsedNanos() / 1_000_000, result.nodesPerSecond(), ForkJoinPool.commonPool().getParallelism());
+    }
+}
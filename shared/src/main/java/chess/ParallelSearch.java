@@ -0,0 +1,137 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches one position on several threads at once (lazy SMP).
+ * <p>
+ * Every thread runs an ordinary {@link SearchEngine} search of the same root,
+ * and they all share one {@link TranspositionTable}. The threads do not
+ * divide the work between them; they speed each other up through the table,
+ * each one finding many positions already searched, or at least their best
+ * move, as left there by the others. The calling thread runs the main search:
+ * it alone follows the limits, its answer is the answer, and helpers are
+ * stopped as soon as it finishes. A node limit counts the main search's nodes
+ * only.
+ * <p>
+ * Helper threads are kept between searches; {@link #close()} ends them.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final SearchEngine main;
+    private final SearchEngine[] helpers;
+    private final ExecutorService executor;
+
+    /**
+     * @param threads how many threads to search with, counting the caller's
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(SearchEngine.DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param threads how many threads to search with, counting the caller's
+     * @param table   the table the threads share
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.table = table;
+        this.main = new SearchEngine(table);
+        this.helpers = new SearchEngine[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new SearchEngine(table);
+        }
+        this.executor = Executors.newFixedThreadPool(Math.max(1, helpers.length), runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches the game's current position for the side to move
+     *
+     * @param game   the game to search, left unchanged
+     * @param limits when to stop
+     * @return the main search's best move and score, with the nodes and time of the whole search
+     */
+    public SearchEngine.Result search(ChessGame game, SearchEngine.Limits limits) {
+        long start = System.nanoTime();
+        SearchEngine.Limits helperLimits = SearchEngine.Limits.ofDepth(SearchEngine.MAX_PLY - 1);
+        // one generation for the whole search, begun before any thread stores into the table
+        table.newSearch();
+        main.clearStop();
+        List<Future<?>> running = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            SearchEngine helper = helpers[i];
+            int index = i + 1;
+            helper.clearStop();
+            running.add(executor.submit(() -> helper.search(game, helperLimits, index)));
+        }
+
+        SearchEngine.Result result;
+        try {
+            result = main.search(game, limits, 0);
+        } finally {
+            for (SearchEngine helper : helpers) {
+                helper.stop();
+            }
+            awaitHelpers(running);
+        }
+
+        long nodes = main.nodes();
+        for (SearchEngine helper : helpers) {
+            nodes += helper.nodes();
+        }
+        return new SearchEngine.Result(result.move(), result.score(), result.depth(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to stop. It returns the main search's answer of
+     * its deepest finished iteration shortly after.
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    /**
+     * @return the main search's answer of its deepest iteration finished so
+     * far, or null if no search has started
+     */
+    public SearchEngine.Result currentResult() {
+        return main.currentResult();
+    }
+
+    /**
+     * Stops any running search and ends the helper threads
+     */
+    @Override
+    public void close() {
+        stop();
+        for (SearchEngine helper : helpers) {
+            helper.stop();
+        }
+        executor.shutdown();
+    }
+
+    private static void awaitHelpers(List<Future<?>> running) {
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+    }
+}
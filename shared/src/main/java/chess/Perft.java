@@ -0,0 +1,158 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft).
+ * <p>
+ * Perft is both the correctness check for the move generator, since the counts
+ * for well known positions are published, and its speed benchmark. The walk
+ * runs on a private copy of the game's board using in-place make/unmake, so the
+ * game passed in is never changed.
+ */
+public class Perft {
+
+    /**
+     * The outcome of a perft run
+     *
+     * @param nodes        leaf nodes counted
+     * @param elapsedNanos wall clock time the count took
+     */
+    public record Result(long nodes, long elapsedNanos) {
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+        }
+    }
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private final PerftCache cache;
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    // one reusable move list per ply, grown as deeper runs need them
+    private MoveList[] plyMoves = new MoveList[0];
+
+    public Perft(ChessGame game) {
+        this(game.getBoard().copyBoard(), game.getTeamTurn(), null);
+    }
+
+    /**
+     * @param board    the board to walk, which this perft takes over
+     * @param teamTurn the side to move on the board
+     * @param cache    subtree counts shared with other walks, or null for none
+     */
+    Perft(ChessBoard board, ChessGame.TeamColor teamTurn, PerftCache cache) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.cache = cache;
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     *
+     * @param depth how many moves to look ahead, at least 0
+     * @return the leaf count and how long it took
+     */
+    public Result run(int depth) {
+        long start = System.nanoTime();
+        long nodes = nodes(depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the positions reachable in exactly depth moves, without timing
+     */
+    long nodes(int depth) {
+        ensurePlies(depth);
+        return count(teamTurn, depth);
+    }
+
+    /**
+     * Splits the count by first move, which narrows down a wrong total to the
+     * subtree where it goes wrong
+     *
+     * @param depth how many moves to look ahead, at least 1
+     * @return the leaf count below each legal first move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        ensurePlies(depth);
+        MoveList moves = new MoveList();
+        moveGenerator.generate(board, teamTurn, moves);
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            counts.put(Move.toChessMove(moves.get(i)), count(opponent(teamTurn), depth - 1));
+            board.unmakeMove();
+        }
+        return counts;
+    }
+
+    private long count(ChessGame.TeamColor color, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long key = 0;
+        if (cache != null && depth > 1) {
+            key = board.getZobristKey() ^ (color == ChessGame.TeamColor.BLACK ? Zobrist.BLACK_TO_MOVE : 0);
+            long cached = cache.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+        MoveList moves = plyMoves[depth];
+        moves.clear();
+        moveGenerator.generate(board, color, moves);
+        // every generated move is legal, so the last ply only needs counting
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(opponent(color), depth - 1);
+            board.unmakeMove();
+        }
+        if (cache != null) {
+            cache.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    private void ensurePlies(int depth) {
+        if (plyMoves.length > depth) {
+            return;
+        }
+        MoveList[] plies = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            plies[i] = i < plyMoves.length ? plyMoves[i] : new MoveList();
+        }
+        plyMoves = plies;
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    /**
+     * Runs perft from the starting position and prints the divide output and speed.
+     * Usage: Perft [depth]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Perft perft = new Perft(new ChessGame());
+
+        Map<ChessMove, Long> divide = perft.divide(depth);
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println("Moves: " + divide.size());
+        System.out.println("Nodes: " + total);
+
+        Result result = perft.run(depth);
+        System.out.printf("perft(%d) = %d in %d ms, %d nodes/sec%n", depth, result.nodes(),
+                result.elapsedNanos() / 1_000_000, result.nodesPerSecond());
+    }
+}
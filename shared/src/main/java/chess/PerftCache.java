@@ -0,0 +1,60 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Subtree counts from perft, keyed by position and remaining depth, shared by
+ * any number of threads without locking. Transpositions are common deep in
+ * the move tree, so a walk that finds a subtree's count here skips it.
+ * <p>
+ * Each entry is two longs, the count and the key XORed with the count, the
+ * same check {@link TranspositionTable} uses, so a write torn between threads
+ * reads as a miss rather than a wrong count. Every store replaces whatever is
+ * in its slot.
+ */
+final class PerftCache {
+
+    // spreads the depth over the key bits so the same position at two depths gets two keys
+    private static final long DEPTH_MIX = 0x9E37_79B9_7F4A_7C15L;
+
+    private final AtomicLongArray table;
+    private final long entryMask;
+
+    /**
+     * @param megabytes the most memory the cache may use, rounded down to a
+     *                  power of two number of entries
+     */
+    PerftCache(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("megabytes must be at least 1");
+        }
+        long entries = Long.highestOneBit(((long) megabytes << 20) / (2 * Long.BYTES));
+        entries = Math.min(entries, Integer.highestOneBit(Integer.MAX_VALUE / 2));
+        this.table = new AtomicLongArray((int) entries * 2);
+        this.entryMask = entries - 1;
+    }
+
+    /**
+     * @return the count stored for the position at this depth, or -1 if there is none
+     */
+    long probe(long key, int depth) {
+        key ^= depth * DEPTH_MIX;
+        int index = index(key);
+        long count = table.getOpaque(index + 1);
+        if (count != 0 && (table.getOpaque(index) ^ count) == key) {
+            return count;
+        }
+        return -1;
+    }
+
+    void store(long key, int depth, long count) {
+        key ^= depth * DEPTH_MIX;
+        int index = index(key);
+        table.setOpaque(index, key ^ count);
+        table.setOpaque(index + 1, count);
+    }
+
+    private int index(long key) {
+        return (int) (key & entryMask) * 2;
+    }
+}
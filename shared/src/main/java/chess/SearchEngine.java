@@ -0,0 +1,457 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Picks a move for the side to move with a negamax alpha-beta search.
+ * <p>
+ * The search deepens one ply at a time, so there is an answer from the first
+ * iteration on, and from {@value #ASPIRATION_MIN_DEPTH} plies on each iteration
+ * starts with a narrow window around the previous score, widening only if the
+ * score falls outside it. It stops when its depth, time or node limit runs out
+ * or {@link #stop()} is called, and answers with the best move of the deepest
+ * iteration it finished. The search runs on a private copy of the game's
+ * board, so the game passed in is never changed.
+ * <p>
+ * When the depth runs out the search does not stop in the middle of an
+ * exchange: a quiescence search plays on with captures and promotions only,
+ * skipping those that lose material by {@link StaticExchange static exchange
+ * evaluation}, until the position is quiet enough to evaluate.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, so a position reached by
+ * different move orders is searched once, and the best move stored for a
+ * position is searched first when it comes up again. The table is kept between
+ * searches and can be shared by engines running at the same time. Below the
+ * root, moves are tried in the order a {@link MovePicker} gives them, with the
+ * killer moves and history scores it needs kept per engine.
+ * <p>
+ * An engine runs one search at a time. {@link #stop()} and
+ * {@link #currentResult()} may be called from other threads while it runs.
+ * Use one engine per game to search several games at once.
+ */
+public class SearchEngine {
+
+    /**
+     * When to stop searching. A time or node limit of 0 means no limit.
+     *
+     * @param depth      deepest iteration to search, in plies
+     * @param timeMillis wall clock budget for the whole search
+     * @param nodes      node budget for the whole search
+     */
+    public record Limits(int depth, long timeMillis, long nodes) {
+        public Limits {
+            if (depth < 1) {
+                throw new IllegalArgumentException("depth must be at least 1");
+            }
+            depth = Math.min(depth, MAX_PLY - 1);
+        }
+
+        public static Limits ofDepth(int depth) {
+            return new Limits(depth, 0, 0);
+        }
+
+        public static Limits ofMillis(long timeMillis) {
+            return new Limits(MAX_PLY - 1, timeMillis, 0);
+        }
+
+        public static Limits ofNodes(long nodes) {
+            return new Limits(MAX_PLY - 1, 0, nodes);
+        }
+    }
+
+    /**
+     * The answer of the deepest finished iteration
+     *
+     * @param move         the best move found, or null if the side to move has no legal move
+     * @param score        centipawns from the side to move's point of view, or a mate score
+     * @param depth        plies searched, 0 if not even the first iteration finished
+     * @param nodes        positions visited so far
+     * @param elapsedNanos wall clock time since the search started
+     */
+    public record Result(ChessMove move, int score, int depth, long nodes, long elapsedNanos) {
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+        }
+
+        /**
+         * @return whether the score is a forced mate, for either side
+         */
+        public boolean isMate() {
+            return Math.abs(score) >= MATE - MAX_PLY;
+        }
+    }
+
+    static final int INFINITY = 32_000;
+    // a mate found n plies from the root scores MATE - n, so nearer mates score higher
+    static final int MATE = 31_000;
+    static final int MAX_PLY = 128;
+    static final int DEFAULT_TABLE_MEGABYTES = 16;
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 50;
+    // the clock is read once every this many nodes (plus one)
+    private static final int CLOCK_CHECK_MASK = 1023;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final TranspositionTable table;
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[] history = new int[2 * 64 * 64];
+
+    private volatile boolean stopped;
+    private volatile Result currentResult;
+
+    private ChessBoard board;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private int rootBestMove;
+
+    public SearchEngine() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param table where to keep search results, which may be shared with other engines
+     */
+    public SearchEngine(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * Searches the game's current position for the side to move
+     *
+     * @param game   the game to search, left unchanged
+     * @param limits when to stop
+     * @return the best move and score of the deepest finished iteration
+     */
+    public Result search(ChessGame game, Limits limits) {
+        table.newSearch();
+        stopped = false;
+        return search(game, limits, 0);
+    }
+
+    /**
+     * Runs a search as one of several threads sharing a table. The main search,
+     * helper 0, deepens one ply at a time; odd numbered helpers start a ply
+     * deeper, so at any moment part of the threads are filling the table one
+     * iteration ahead of the main search. Neither clears a pending stop, so a
+     * helper can be stopped before it starts.
+     */
+    Result search(ChessGame game, Limits limits, int helper) {
+        long start = System.nanoTime();
+        board = game.getBoard().copyBoard();
+        ChessGame.TeamColor us = game.getTeamTurn();
+        nodes = 0;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        Arrays.fill(history, 0);
+        nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+
+        MoveList rootMoves = new MoveList();
+        moveGenerator.generate(board, us, rootMoves);
+        if (rootMoves.isEmpty()) {
+            currentResult = new Result(null, moveGenerator.inCheck() ? -MATE : 0, 0, 0, System.nanoTime() - start);
+            return currentResult;
+        }
+        // until the first iteration finishes, any legal move beats no move
+        currentResult = new Result(Move.toChessMove(rootMoves.get(0)), 0, 0, 0, 0);
+
+        int score = 0;
+        for (int depth = 1 + (helper & 1); depth <= limits.depth(); depth++) {
+            int delta = ASPIRATION_WINDOW;
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            if (depth >= ASPIRATION_MIN_DEPTH) {
+                alpha = Math.max(score - delta, -INFINITY);
+                beta = Math.min(score + delta, INFINITY);
+            }
+            while (true) {
+                int iterationScore = searchRoot(us, rootMoves, depth, alpha, beta);
+                if (stopped) {
+                    break;
+                }
+                if (iterationScore <= alpha) {
+                    delta *= 2;
+                    alpha = Math.max(iterationScore - delta, -INFINITY);
+                } else if (iterationScore >= beta) {
+                    delta *= 2;
+                    beta = Math.min(iterationScore + delta, INFINITY);
+                } else {
+                    score = iterationScore;
+                    break;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+
+            moveToFront(rootMoves, rootBestMove);
+            table.store(positionKey(us), rootBestMove, scoreToTable(score, 0), depth, TranspositionTable.BOUND_EXACT);
+            currentResult = new Result(Move.toChessMove(rootBestMove), score, depth, nodes, System.nanoTime() - start);
+            // a deeper search cannot find a faster mate than one already inside the horizon
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+        return currentResult;
+    }
+
+    /**
+     * Asks a running search to stop. It returns the answer of its deepest
+     * finished iteration shortly after.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clears a stop left over from an earlier search, ahead of starting a helper
+     */
+    void clearStop() {
+        stopped = false;
+    }
+
+    /**
+     * @return positions visited by the running or last search
+     */
+    long nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the answer of the deepest iteration finished so far by the
+     * running or last search, or null if no search has started
+     */
+    public Result currentResult() {
+        return currentResult;
+    }
+
+    private int searchRoot(ChessGame.TeamColor us, MoveList moves, int depth, int alpha, int beta) {
+        int best = -INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            int score = -negamax(opponent(us), depth - 1, 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return best;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    rootBestMove = move;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int negamax(ChessGame.TeamColor color, int depth, int ply, int alpha, int beta) {
+        if (depth == 0) {
+            return quiescence(color, ply, alpha, beta);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(board, color);
+        }
+
+        long key = positionKey(color);
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        picker.init(board, color, moveGenerator, hashMove, killers[ply], history);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        int searched = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            searched++;
+            board.makeMove(move);
+            int score = -negamax(opponent(color), depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (score >= beta) {
+                        if (!Move.isCapture(move) && Move.promotion(move) == null) {
+                            rememberQuietCutoff(color, move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (searched == 0) {
+            return picker.inCheck() ? -MATE + ply : 0;
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions until none is left that does not lose
+     * material. The side to move may also stand pat on the evaluation, since it
+     * is never forced to capture, unless it is in check, when every evasion is
+     * searched instead.
+     */
+    private int quiescence(ChessGame.TeamColor color, int ply, int alpha, int beta) {
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(board, color);
+        }
+
+        MovePicker picker = pickers[ply];
+        picker.initQuiescence(board, color, moveGenerator);
+        boolean inCheck = picker.inCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluator.evaluate(board, color);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            board.makeMove(move);
+            int score = -quiescence(opponent(color), ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        // in check with no evasion found
+        if (best == -INFINITY) {
+            return -MATE + ply;
+        }
+        return best;
+    }
+
+    /**
+     * A quiet move that caused a cutoff is likely to cause one in the sibling
+     * positions too: it becomes the first killer at its ply, and its history
+     * score grows with the depth it cut off at
+     */
+    private void rememberQuietCutoff(ChessGame.TeamColor color, int move, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int index = MovePicker.historyIndex(color, move);
+        history[index] += depth * depth;
+        // keep scores bounded by halving them all once one grows large
+        if (history[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * Counts a node and checks the limits
+     *
+     * @return whether the search has to stop
+     */
+    private boolean countNode() {
+        if (++nodes >= nodeLimit || ((nodes & CLOCK_CHECK_MASK) == 0 && System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private long positionKey(ChessGame.TeamColor color) {
+        long key = board.getZobristKey();
+        return color == ChessGame.TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
+    /**
+     * Mate scores count plies from the root, but a table entry can be reached at
+     * any ply, so they are stored counting plies from the entry's own position
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Moves the given move to the front of the list, keeping the others in
+     * order, so it is searched first. Does nothing if the move is not in the list.
+     */
+    private static void moveToFront(MoveList moves, int move) {
+        int index = 0;
+        while (index < moves.size() && moves.get(index) != move) {
+            index++;
+        }
+        if (index == moves.size()) {
+            return;
+        }
+        for (int i = index; i > 0; i--) {
+            moves.set(i, moves.get(i - 1));
+        }
+        moves.set(0, move);
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+/**
+ * Static exchange evaluation (SEE): what a capture wins or loses once both
+ * sides have traded off every piece that attacks the target square, each
+ * recapturing with its least valuable attacker and free to stop when
+ * recapturing would lose material.
+ * <p>
+ * The exchange is played out on occupancy masks only, taking each capturing
+ * piece out of the occupancy so the sliders lined up behind it join in, so
+ * the board is never changed. Pins are not considered.
+ */
+final class StaticExchange {
+
+    // by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    static final int[] PIECE_VALUES = {20_000, 900, 330, 320, 500, 100};
+
+    private static final ChessPiece.PieceType[] CHEAPEST_FIRST = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+
+    private StaticExchange() {
+    }
+
+    /**
+     * @param move      a packed {@link Move} that is legal on the board
+     * @param threshold the least material the side moving must come out with
+     * @return whether the move wins at least threshold material once the exchange it starts is over
+     */
+    static boolean isAtLeast(ChessBoard board, int move, int threshold) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = board.pieceAt(from);
+        int target = board.pieceAt(to);
+        ChessPiece.PieceType promotion = Move.promotion(move);
+
+        // the value on the square after the move, which is what the other side can win back
+        int movedValue = promotion == null ? PIECE_VALUES[moved % 6] : PIECE_VALUES[promotion.ordinal()];
+        int swap = (target < 0 ? 0 : PIECE_VALUES[target % 6]) - threshold;
+        if (promotion != null) {
+            swap += PIECE_VALUES[promotion.ordinal()] - PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+        }
+        if (swap < 0) {
+            return false;
+        }
+        // even losing the moved piece for nothing leaves the side moving above the threshold
+        swap = movedValue - swap;
+        if (swap <= 0) {
+            return true;
+        }
+
+        long occupied = board.occupied() ^ (1L << from) ^ (1L << to);
+        long attackers = board.attackersTo(to, occupied);
+        long diagonal = board.piecesOfType(ChessPiece.PieceType.BISHOP) | board.piecesOfType(ChessPiece.PieceType.QUEEN);
+        long straight = board.piecesOfType(ChessPiece.PieceType.ROOK) | board.piecesOfType(ChessPiece.PieceType.QUEEN);
+        ChessGame.TeamColor side = ChessPiece.teamOf(moved);
+        // 1 while the side that made the move comes out ahead
+        int result = 1;
+
+        while (true) {
+            side = side == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            attackers &= occupied;
+            long sideAttackers = attackers & board.pieces(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+            result ^= 1;
+
+            ChessPiece.PieceType type = null;
+            long attacker = 0;
+            for (ChessPiece.PieceType cheapest : CHEAPEST_FIRST) {
+                attacker = sideAttackers & board.pieces(ChessPiece.code(side, cheapest));
+                if (attacker != 0) {
+                    type = cheapest;
+                    break;
+                }
+            }
+            if (type == ChessPiece.PieceType.KING) {
+                // the king may only recapture if nothing can take it back
+                return ((attackers & ~board.pieces(side)) != 0 ? result ^ 1 : result) != 0;
+            }
+            swap = PIECE_VALUES[type.ordinal()] - swap;
+            if (swap < result) {
+                break;
+            }
+            occupied ^= attacker & -attacker;
+            // whatever stood behind the capturing piece can now reach the square
+            attackers |= (Attacks.bishop(to, occupied) & diagonal) | (Attacks.rook(to, occupied) & straight);
+        }
+        return result != 0;
+    }
+}
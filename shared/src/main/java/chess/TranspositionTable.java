@@ -0,0 +1,156 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size hash table of search results, keyed by Zobrist key, that any
+ * number of search threads can share without locking.
+ * <p>
+ * Each entry is two longs: the packed data, and the key XORed with the data. A
+ * reader only accepts an entry if XORing the two gives back its key, so an
+ * entry torn by two threads writing at once reads as a miss rather than as
+ * another position's result. Entries sit in buckets of two. A store goes into
+ * the slot already holding the position if there is one, otherwise over the
+ * slot whose entry is shallowest and oldest.
+ */
+public class TranspositionTable {
+
+    static final int BOUND_LOWER = 1;
+    static final int BOUND_UPPER = 2;
+    static final int BOUND_EXACT = 3;
+
+    private static final int BUCKET_SIZE = 2;
+    // longs per entry, and per bucket
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_LONGS = BUCKET_SIZE * ENTRY_LONGS;
+    private static final int GENERATION_MASK = 0x3F;
+
+    // data layout: move in bits 0-15, score in 16-31, depth in 32-39, bound in 40-41, generation in 42-47
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 42;
+
+    private final AtomicLongArray table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes the most memory the table may use, rounded down to a
+     *                  power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("megabytes must be at least 1");
+        }
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES));
+        // AtomicLongArray is int-indexed
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / BUCKET_LONGS));
+        this.table = new AtomicLongArray((int) buckets * BUCKET_LONGS);
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * @return how many entries the table holds
+     */
+    public int capacity() {
+        return table.length() / ENTRY_LONGS;
+    }
+
+    /**
+     * Empties the table. Not safe to call while a search is using it.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.setOpaque(i, 0);
+        }
+        generation = 0;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced first
+     */
+    void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * @return the packed entry stored for the key, or 0 if there is none
+     */
+    long probe(long key) {
+        int bucket = bucketIndex(key);
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table.getOpaque(i + 1);
+            if (data != 0 && (table.getOpaque(i) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result for the key
+     *
+     * @param move  the best move found as a packed {@link Move}, or {@link Move#NONE}
+     *              to keep any move already stored for the position
+     * @param score the score, which must fit in 16 signed bits
+     * @param depth the depth searched, 0 to 255
+     * @param bound which of the BOUND_ constants the score is
+     */
+    void store(long key, int move, int score, int depth, int bound) {
+        int bucket = bucketIndex(key);
+        int current = generation;
+        int target = bucket;
+        int lowestWorth = Integer.MAX_VALUE;
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table.getOpaque(i + 1);
+            if (data == 0 || (table.getOpaque(i) ^ data) == key) {
+                target = i;
+                if (move == Move.NONE && data != 0) {
+                    move = move(data);
+                }
+                break;
+            }
+            // each search the entry is old costs it as much as two plies of depth
+            int age = (current - generation(data)) & GENERATION_MASK;
+            int worth = depth(data) - 2 * age;
+            if (worth < lowestWorth) {
+                lowestWorth = worth;
+                target = i;
+            }
+        }
+
+        long data = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) current << GENERATION_SHIFT);
+        table.setOpaque(target, key ^ data);
+        table.setOpaque(target + 1, data);
+    }
+
+    static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * BUCKET_LONGS;
+    }
+}
@@ -0,0 +1,45 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per
+ * piece on its square, plus the side key when black is to move, so adding,
+ * removing or moving a piece updates the key with one or two XORs.
+ * <p>
+ * The keys come from a fixed seed so they are the same in every JVM, which
+ * lets keys be stored or shared between processes.
+ */
+final class Zobrist {
+
+    private static final long[] PIECE_SQUARE = new long[12 * 64];
+    static final long BLACK_TO_MOVE;
+    // reserved for castling rights (one key per 4-bit rights value) and the
+    // en passant file once ChessGame tracks them
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece code standing on a square
+     */
+    static long piece(int code, int square) {
+        return PIECE_SQUARE[code * 64 + square];
+    }
+}
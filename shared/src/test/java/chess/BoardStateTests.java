@@ -0,0 +1,227 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardStateTests {
+
+    private static void assertSameState(ChessBoard expected, ChessBoard actual) {
+        assertEquals(expected, actual);
+        for (int square = 0; square < 64; square++) {
+            assertEquals(expected.pieceAt(square), actual.pieceAt(square), "mailbox square " + square);
+        }
+        for (int code = 0; code < 12; code++) {
+            assertEquals(expected.pieces(code), actual.pieces(code), "mask of piece " + code);
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            assertEquals(expected.pieces(color), actual.pieces(color), "mask of " + color);
+        }
+        assertEquals(expected.occupied(), actual.occupied());
+        assertEquals(expected.getZobristKey(), actual.getZobristKey());
+        assertEquals(expected.midgameScore(), actual.midgameScore());
+        assertEquals(expected.endgameScore(), actual.endgameScore());
+        assertEquals(expected.phase(), actual.phase());
+    }
+
+    @Test
+    void unmakeRestoresCapturesAndPromotions() {
+        ChessBoard board = TestUtilities.loadBoard(TestPositions.PROMOTIONS);
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        SplittableRandom random = new SplittableRandom(2);
+        int captures = 0;
+        int promotions = 0;
+
+        for (int walk = 0; walk < 200; walk++) {
+            ChessBoard[] before = new ChessBoard[6];
+            ChessGame.TeamColor color = ChessGame.TeamColor.BLACK;
+            int made = 0;
+            for (; made < before.length; made++) {
+                moves.clear();
+                generator.generate(board, color, moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int move = moves.get(random.nextInt(moves.size()));
+                captures += Move.isCapture(move) ? 1 : 0;
+                promotions += Move.promotion(move) != null ? 1 : 0;
+                before[made] = board.copyBoard();
+                board.makeMove(move);
+                color = Perft.opponent(color);
+            }
+            while (made > 0) {
+                board.unmakeMove();
+                assertSameState(before[--made], board);
+            }
+        }
+
+        assertSameState(TestUtilities.loadBoard(TestPositions.PROMOTIONS), board);
+        assertTrue(captures > 0);
+        assertTrue(promotions > 0);
+    }
+
+    @Test
+    void unmakeCaptureWithPromotion() {
+        ChessBoard board = TestUtilities.loadBoard(TestPositions.PROMOTIONS);
+        ChessBoard before = board.copyBoard();
+        // b7 takes the knight on a8 and becomes a queen
+        board.makeMove(Move.of(new ChessPosition(7, 2).toSquare(), new ChessPosition(8, 1).toSquare(), ChessPiece.PieceType.QUEEN, true));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN), board.getPiece(new ChessPosition(8, 1)));
+        assertNull(board.getPiece(new ChessPosition(7, 2)));
+
+        board.unmakeMove();
+        assertSameState(before, board);
+    }
+
+    private static ChessBoard board(String text) {
+        return TestUtilities.loadBoard(text);
+    }
+
+    private static boolean attacked(ChessBoard board, int row, int col, ChessGame.TeamColor attacker) {
+        return board.isSquareAttacked(new ChessPosition(row, col), attacker);
+    }
+
+    @Test
+    void knightAndKingAttacks() {
+        ChessBoard board = board("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |N| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |K| | | | | | | |
+                """);
+        assertTrue(attacked(board, 6, 5, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 2, 3, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 5, 4, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 5, 5, ChessGame.TeamColor.WHITE));
+        // the king's neighbours only
+        assertTrue(attacked(board, 2, 2, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 3, 1, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 6, 5, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void slidersStopAtBlockers() {
+        ChessBoard board = board("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |p| | | | | | | |
+                | | | | |p| | | |
+                | | | | | | | | |
+                |R| |B| | | | | |
+                """);
+        // the rook reaches the blocking pawn but not past it
+        assertTrue(attacked(board, 2, 1, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 4, 1, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 5, 1, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 1, 2, ChessGame.TeamColor.WHITE));
+        // and the bishop beside it along the first row stops it too
+        assertTrue(attacked(board, 1, 3, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 1, 4, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 3, 5, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 4, 6, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 3, 1, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 3, 3, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void queenAttacksBothWays() {
+        ChessBoard board = board("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | | | | | | | |
+                | | | | | |P| | |
+                | | | | | | | | |
+                """);
+        assertTrue(attacked(board, 8, 4, ChessGame.TeamColor.BLACK));
+        assertTrue(attacked(board, 4, 8, ChessGame.TeamColor.BLACK));
+        assertTrue(attacked(board, 7, 1, ChessGame.TeamColor.BLACK));
+        assertTrue(attacked(board, 2, 6, ChessGame.TeamColor.BLACK));
+        assertFalse(attacked(board, 1, 7, ChessGame.TeamColor.BLACK));
+        assertTrue(attacked(board, 3, 3, ChessGame.TeamColor.BLACK));
+        assertFalse(attacked(board, 6, 3, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 2, 5, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void pawnsAttackForwardDiagonally() {
+        ChessBoard board = board("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """);
+        assertTrue(attacked(board, 5, 4, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 5, 6, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 5, 5, ChessGame.TeamColor.WHITE));
+        assertFalse(attacked(board, 3, 4, ChessGame.TeamColor.WHITE));
+        assertTrue(attacked(board, 4, 4, ChessGame.TeamColor.BLACK));
+        assertTrue(attacked(board, 4, 6, ChessGame.TeamColor.BLACK));
+        assertFalse(attacked(board, 6, 4, ChessGame.TeamColor.BLACK));
+        assertFalse(attacked(board, 4, 5, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void kingSquareFollowsTheKing() {
+        ChessBoard board = new ChessBoard();
+        assertEquals(-1, board.kingSquare(ChessGame.TeamColor.WHITE));
+        assertEquals(-1, board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(3, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        assertEquals(-1, board.kingSquare(ChessGame.TeamColor.WHITE));
+        assertEquals(new ChessPosition(3, 7).toSquare(), board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        board.resetBoard();
+        assertEquals(new ChessPosition(1, 5).toSquare(), board.kingSquare(ChessGame.TeamColor.WHITE));
+        assertEquals(new ChessPosition(8, 5).toSquare(), board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(1, 5), null);
+        assertEquals(-1, board.kingSquare(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void offBoardPositionsAreRejected() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+
+        // column 9 of row 2 must not wrap around to a3
+        assertThrows(IndexOutOfBoundsException.class, () -> board.addPiece(new ChessPosition(2, 9), rook));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(new ChessPosition(3, 0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(new ChessPosition(9, 1)));
+        assertNull(board.getPiece(new ChessPosition(3, 1)));
+    }
+
+    @Test
+    void copiedGameIsIndependent() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        ChessGame copy = game.copyGame();
+        assertEquals(game.getBoard(), copy.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, copy.getTeamTurn());
+        assertEquals(1, copy.getPlyCount());
+        assertEquals(game.getZobristKey(), copy.getZobristKey());
+
+        copy.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        assertEquals(2, copy.getPlyCount());
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(1, game.getPlyCount());
+        assertNotNull(game.getBoard().getPiece(new ChessPosition(7, 5)));
+    }
+}
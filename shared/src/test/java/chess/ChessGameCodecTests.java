@@ -0,0 +1,106 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+public class ChessGameCodecTests {
+
+    @Test
+    void roundTripsStartingGame() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = ChessGameCodec.encode(game);
+        ChessGame decoded = ChessGameCodec.decode(bytes);
+
+        assertEquals(36, bytes.length);
+        assertEquals(TestUtilities.defaultBoard(), decoded.getBoard());
+        assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        assertEquals(ChessGame.TeamColor.WHITE, decoded.getTeamTurn());
+    }
+
+    @Test
+    void roundTripsPromotedPiecesAndTurn() {
+        ChessGame game = game("""
+                | | | |Q| | |k| |
+                | | | | | | | | |
+                | | |n| | | | | |
+                | | | | | | | | |
+                | | | | |B| | | |
+                | | | | | | | | |
+                |p| | | | | | | |
+                |R| | | |K| | |q|
+                """, ChessGame.TeamColor.BLACK);
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+
+        assertEquals(game.getBoard(), decoded.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        assertEquals(game.validMoves(new ChessPosition(1, 8)), decoded.validMoves(new ChessPosition(1, 8)));
+    }
+
+    @Test
+    void roundTripsPlyCount() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+
+        assertEquals(3, decoded.getPlyCount());
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertEquals(game.getBoard(), decoded.getBoard());
+    }
+
+    @Test
+    void decodesVersionOne() {
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        byte[] bytes = Arrays.copyOf(ChessGameCodec.encode(game), 34);
+        bytes[0] = 1;
+
+        ChessGame decoded = ChessGameCodec.decode(bytes);
+
+        assertEquals(TestUtilities.defaultBoard(), decoded.getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertEquals(0, decoded.getPlyCount());
+    }
+
+    @Test
+    void roundTripsMoves() {
+        ChessMove quiet = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT);
+
+        assertEquals(quiet, ChessGameCodec.decodeMove(ChessGameCodec.encodeMove(quiet)));
+        assertEquals(promotion, ChessGameCodec.decodeMove(ChessGameCodec.encodeMove(promotion)));
+        assertTrue(ChessGameCodec.encodeMove(promotion) < 1 << 15);
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decodeMove(7 << 12));
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decodeMove(-1));
+    }
+
+    @Test
+    void muchSmallerThanJson() {
+        ChessGame game = new ChessGame();
+        int jsonLength = new Gson().toJson(game).length();
+
+        assertTrue(ChessGameCodec.encode(game).length * 10 < jsonLength);
+    }
+
+    @Test
+    void rejectsMalformedBytes() {
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[]{(byte) 99}));
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(Arrays.copyOf(bytes, 20)));
+
+        bytes[1] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+    }
+}
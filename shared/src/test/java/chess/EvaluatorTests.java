@@ -0,0 +1,88 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluatorTests {
+
+    @Test
+    void startingPositionIsEven() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertEquals(0, Evaluator.evaluate(board, ChessGame.TeamColor.WHITE));
+        assertEquals(PieceSquareTables.MAX_PHASE, board.phase());
+    }
+
+    @Test
+    void mirroredPositionsScoreTheSame() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | |p|p| | | | | |
+                | | | | |n| | | |
+                | | | | | | | | |
+                | | | |P| | | | |
+                | | |N| | | | | |
+                |P|P| | |Q| | | |
+                | | | | |K| | | |
+                """);
+        ChessBoard mirrored = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                |p|p| | |q| | | |
+                | | |n| | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | |N| | | |
+                | |P|P| | | | | |
+                | | | | |K| | | |
+                """);
+
+        int score = Evaluator.evaluate(board, ChessGame.TeamColor.WHITE);
+        assertTrue(score > 0);
+        assertEquals(score, Evaluator.evaluate(mirrored, ChessGame.TeamColor.BLACK));
+        assertEquals(-score, Evaluator.evaluate(board, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void incrementalScoresMatchRecount() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        SplittableRandom random = new SplittableRandom(7);
+        ChessGame.TeamColor color = ChessGame.TeamColor.WHITE;
+
+        for (int ply = 0; ply < 200; ply++) {
+            moves.clear();
+            generator.generate(board, color, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            color = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            assertRecounted(board);
+            assertRecounted(board.copyBoard());
+        }
+    }
+
+    private static void assertRecounted(ChessBoard board) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            int code = board.pieceAt(square);
+            if (code >= 0) {
+                midgame += PieceSquareTables.midgame(code, square);
+                endgame += PieceSquareTables.endgame(code, square);
+                phase += PieceSquareTables.phase(code);
+            }
+        }
+        assertEquals(midgame, board.midgameScore());
+        assertEquals(endgame, board.endgameScore());
+        assertEquals(phase, board.phase());
+    }
+}
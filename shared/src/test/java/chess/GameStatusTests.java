@@ -0,0 +1,105 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+public class GameStatusTests {
+
+    @Test
+    void ongoingAndCheck() {
+        ChessGame game = new ChessGame();
+        assertEquals(GameStatus.ONGOING, game.getGameStatus(ChessGame.TeamColor.WHITE));
+
+        game = game("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |r| | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(GameStatus.CHECK, game.getGameStatus(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void blockIsTheOnlyAnswer() {
+        // the king is boxed in by its own pieces and nothing can take the rook, but the bishop can block
+        ChessGame game = game("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |B| | | | |
+                | | | | | | |P|P|
+                |r| | | | | | |K|
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(GameStatus.CHECK, game.getGameStatus(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void doubleCheckmate() {
+        ChessGame game = game("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |n|P|P|
+                |r| | | | | | |K|
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(GameStatus.CHECKMATE, game.getGameStatus(ChessGame.TeamColor.WHITE));
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void stalemate() {
+        ChessGame game = game("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(GameStatus.STALEMATE, game.getGameStatus(ChessGame.TeamColor.BLACK));
+        assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void matchesCheckAndMoveCountDuringRandomGames() {
+        SplittableRandom random = new SplittableRandom(19);
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+            ChessBoard board = new ChessBoard();
+            board.resetBoard();
+            ChessGame game = new ChessGame();
+            game.setBoard(board);
+            ChessGame.TeamColor color = ChessGame.TeamColor.WHITE;
+            for (int ply = 0; ply < 300; ply++) {
+                moves.clear();
+                generator.generate(board, color, moves);
+                boolean check = game.isInCheck(color);
+                GameStatus expected = moves.isEmpty()
+                        ? (check ? GameStatus.CHECKMATE : GameStatus.STALEMATE)
+                        : (check ? GameStatus.CHECK : GameStatus.ONGOING);
+                assertEquals(expected, game.getGameStatus(color));
+                if (moves.isEmpty()) {
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                color = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            }
+        }
+    }
+}
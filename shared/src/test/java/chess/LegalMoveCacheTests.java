@@ -0,0 +1,70 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveCacheTests {
+
+    private static final ChessPosition E2 = new ChessPosition(2, 5);
+    private static final ChessPosition E4 = new ChessPosition(4, 5);
+    private static final ChessPosition E7 = new ChessPosition(7, 5);
+
+    @Test
+    void dropsLeastRecentlyUsed() {
+        LegalMoveCache cache = new LegalMoveCache(2);
+        cache.put(1, new int[]{1});
+        cache.put(2, new int[]{2});
+        assertNotNull(cache.get(1));
+        cache.put(3, new int[]{3});
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void followsMovesAndBoardChanges() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        assertEquals(2, game.validMoves(E2).size());
+
+        game.makeMove(new ChessMove(E2, E4, null));
+        assertTrue(game.validMoves(E2).isEmpty());
+        assertEquals(1, game.validMoves(E4).size());
+
+        // a change made straight to the board, past makeMove, is still noticed
+        game.getBoard().addPiece(new ChessPosition(6, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        assertTrue(game.validMoves(E7).isEmpty());
+
+        game.setBoard(new ChessBoard());
+        assertTrue(game.validMoves(E2).isEmpty());
+    }
+
+    @Test
+    void sharedAcrossGames() throws InvalidMoveException {
+        LegalMoveCache cache = new LegalMoveCache(100);
+        ChessGame first = new ChessGame();
+        ChessGame second = new ChessGame();
+        first.setMoveCache(cache);
+        second.setMoveCache(cache);
+
+        Set<ChessMove> expected = new HashSet<>(new ChessGame().validMoves(E2));
+        assertEquals(expected, new HashSet<>(first.validMoves(E2)));
+        assertEquals(expected, new HashSet<>(second.validMoves(E2)));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.hits());
+
+        first.makeMove(new ChessMove(E2, E4, null));
+        second.makeMove(new ChessMove(E2, E4, null));
+        assertEquals(2, first.validMoves(E7).size());
+        assertEquals(2, second.validMoves(E7).size());
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.hits());
+    }
+}
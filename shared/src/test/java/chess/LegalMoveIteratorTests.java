@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+public class LegalMoveIteratorTests {
+
+    @Test
+    void yieldsEveryLegalMoveCapturesFirst() {
+        ChessBoard board = TestUtilities.loadBoard(TestPositions.KIWIPETE);
+        MoveList expected = new MoveList();
+        new MoveGenerator().generate(board, ChessGame.TeamColor.WHITE, expected);
+
+        LegalMoveIterator moves = new LegalMoveIterator(new MoveGenerator()).reset(board, ChessGame.TeamColor.WHITE);
+        Set<Integer> seen = new HashSet<>();
+        boolean quietSeen = false;
+        while (moves.hasNext()) {
+            int move = moves.nextInt();
+            assertTrue(seen.add(move));
+            boolean capture = Move.isCapture(move) || Move.promotion(move) != null;
+            assertFalse(capture && quietSeen, "capture after a quiet move");
+            quietSeen |= !capture;
+        }
+        assertEquals(expected.size(), seen.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(seen.contains(expected.get(i)));
+        }
+        assertThrows(NoSuchElementException.class, moves::nextInt);
+    }
+
+    @Test
+    void publicIteratorMatchesValidMoves() {
+        ChessGame game = game(TestPositions.KIWIPETE, ChessGame.TeamColor.WHITE);
+
+        Set<ChessMove> iterated = new HashSet<>();
+        for (Iterator<ChessMove> moves = game.legalMoves(ChessGame.TeamColor.BLACK); moves.hasNext(); ) {
+            iterated.add(moves.next());
+        }
+        Set<ChessMove> valid = new HashSet<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == ChessGame.TeamColor.BLACK) {
+                    valid.addAll(game.validMoves(position));
+                }
+            }
+        }
+        assertEquals(valid, iterated);
+    }
+
+    @Test
+    void hasAnyLegalMove() {
+        ChessGame game = new ChessGame();
+        assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+
+        game.setBoard(TestUtilities.loadBoard("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """));
+        assertFalse(game.hasAnyLegalMove(ChessGame.TeamColor.BLACK));
+        assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+    }
+}
@@ -0,0 +1,213 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cross-checks the legal move generator against a deliberately plain one that
+ * walks the board square by square and tests every candidate move by playing it
+ * on a copy of the board, as the original generator did.
+ */
+public class MoveGeneratorTests {
+
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+    private static final int[][] STRAIGHT = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] DIAGONAL = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private static final String[] STARTS = {
+            TestPositions.KIWIPETE,
+            """
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """,
+            TestPositions.PROMOTIONS
+    };
+
+    @Test
+    void matchesReferenceOverRandomPlayouts() {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        SplittableRandom random = new SplittableRandom(5);
+        int positions = 0;
+
+        for (int game = 0; game < 60; game++) {
+            ChessBoard board = game % 4 == 3 ? freshBoard() : TestUtilities.loadBoard(STARTS[game % 4]);
+            ChessGame.TeamColor color = game % 2 == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            for (int ply = 0; ply < 80; ply++) {
+                moves.clear();
+                generator.generate(board, color, moves);
+                Set<ChessMove> expected = referenceMoves(board, color);
+                assertEquals(expected, new HashSet<>(moves.toChessMoves()), "game " + game + " ply " + ply);
+                assertEquals(expected.size(), moves.size(), "duplicate moves at game " + game + " ply " + ply);
+                positions++;
+                if (moves.isEmpty()) {
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                color = Perft.opponent(color);
+            }
+        }
+
+        assertTrue(positions > 1_000);
+    }
+
+    private static ChessBoard freshBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        return board;
+    }
+
+    private static Set<ChessMove> referenceMoves(ChessBoard board, ChessGame.TeamColor color) {
+        Set<ChessMove> legal = new HashSet<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition from = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(from);
+                if (piece == null || piece.getTeamColor() != color) {
+                    continue;
+                }
+                for (ChessMove move : pseudoLegalMoves(board, from, piece)) {
+                    ChessBoard after = board.copyBoard();
+                    after.addPiece(move.getEndPosition(), move.getPromotionPiece() == null ? piece
+                            : new ChessPiece(color, move.getPromotionPiece()));
+                    after.addPiece(from, null);
+                    if (!kingAttacked(after, color)) {
+                        legal.add(move);
+                    }
+                }
+            }
+        }
+        return legal;
+    }
+
+    private static List<ChessMove> pseudoLegalMoves(ChessBoard board, ChessPosition from, ChessPiece piece) {
+        List<ChessMove> moves = new ArrayList<>();
+        ChessGame.TeamColor color = piece.getTeamColor();
+        switch (piece.getPieceType()) {
+            case KNIGHT -> steps(board, from, color, KNIGHT_STEPS, false, moves);
+            case KING -> steps(board, from, color, KING_STEPS, false, moves);
+            case ROOK -> steps(board, from, color, STRAIGHT, true, moves);
+            case BISHOP -> steps(board, from, color, DIAGONAL, true, moves);
+            case QUEEN -> {
+                steps(board, from, color, STRAIGHT, true, moves);
+                steps(board, from, color, DIAGONAL, true, moves);
+            }
+            case PAWN -> pawnMoves(board, from, color, moves);
+        }
+        return moves;
+    }
+
+    private static void steps(ChessBoard board, ChessPosition from, ChessGame.TeamColor color, int[][] directions,
+                              boolean slide, List<ChessMove> moves) {
+        for (int[] direction : directions) {
+            int row = from.getRow() + direction[0];
+            int col = from.getColumn() + direction[1];
+            while (onBoard(row, col)) {
+                ChessPosition to = new ChessPosition(row, col);
+                ChessPiece target = board.getPiece(to);
+                if (target == null || target.getTeamColor() != color) {
+                    moves.add(new ChessMove(from, to, null));
+                }
+                if (target != null || !slide) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+    }
+
+    private static void pawnMoves(ChessBoard board, ChessPosition from, ChessGame.TeamColor color, List<ChessMove> moves) {
+        int forward = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+        int startRow = color == ChessGame.TeamColor.WHITE ? 2 : 7;
+        int row = from.getRow() + forward;
+        if (!onBoard(row, from.getColumn())) {
+            return;
+        }
+        ChessPosition oneStep = new ChessPosition(row, from.getColumn());
+        if (board.getPiece(oneStep) == null) {
+            addPawnMove(from, oneStep, moves);
+            ChessPosition twoSteps = new ChessPosition(row + forward, from.getColumn());
+            if (from.getRow() == startRow && board.getPiece(twoSteps) == null) {
+                moves.add(new ChessMove(from, twoSteps, null));
+            }
+        }
+        for (int side = -1; side <= 1; side += 2) {
+            int col = from.getColumn() + side;
+            if (onBoard(row, col)) {
+                ChessPosition to = new ChessPosition(row, col);
+                ChessPiece target = board.getPiece(to);
+                if (target != null && target.getTeamColor() != color) {
+                    addPawnMove(from, to, moves);
+                }
+            }
+        }
+    }
+
+    private static void addPawnMove(ChessPosition from, ChessPosition to, List<ChessMove> moves) {
+        if (to.getRow() == 1 || to.getRow() == 8) {
+            for (ChessPiece.PieceType promotion : PROMOTION_TYPES) {
+                moves.add(new ChessMove(from, to, promotion));
+            }
+        } else {
+            moves.add(new ChessMove(from, to, null));
+        }
+    }
+
+    /**
+     * Whether any enemy piece has a pseudo-legal move onto the team's king; a
+     * team without a king is never in check
+     */
+    private static boolean kingAttacked(ChessBoard board, ChessGame.TeamColor color) {
+        ChessPosition king = null;
+        for (int row = 1; row <= 8 && king == null; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == color && piece.getPieceType() == ChessPiece.PieceType.KING) {
+                    king = new ChessPosition(row, col);
+                    break;
+                }
+            }
+        }
+        if (king == null) {
+            return false;
+        }
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition from = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(from);
+                if (piece == null || piece.getTeamColor() == color) {
+                    continue;
+                }
+                for (ChessMove move : pseudoLegalMoves(board, from, piece)) {
+                    if (move.getEndPosition().equals(king)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+}
@@ -0,0 +1,90 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovePickerTests {
+
+    private static List<Integer> pickAll(MovePicker picker) {
+        List<Integer> picked = new ArrayList<>();
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            picked.add(move);
+        }
+        return picked;
+    }
+
+    private static Set<Integer> legalMoves(ChessBoard board, ChessGame.TeamColor color) {
+        MoveList moves = new MoveList();
+        new MoveGenerator().generate(board, color, moves);
+        Set<Integer> legal = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            legal.add(moves.get(i));
+        }
+        return legal;
+    }
+
+    @Test
+    void picksEveryLegalMoveOnce() {
+        ChessBoard board = TestUtilities.loadBoard(TestPositions.KIWIPETE);
+        MovePicker picker = new MovePicker();
+        // a killer that is not legal here is never picked
+        picker.init(board, ChessGame.TeamColor.WHITE, new MoveGenerator(), Move.NONE,
+                new int[]{Move.of(0, 1, null, false), Move.NONE}, new int[2 * 64 * 64]);
+
+        List<Integer> picked = pickAll(picker);
+        assertEquals(46, picked.size());
+        assertEquals(legalMoves(board, ChessGame.TeamColor.WHITE), new HashSet<>(picked));
+    }
+
+    @Test
+    void hashMoveThenCapturesThenKillersThenHistory() {
+        ChessBoard board = TestUtilities.loadBoard(TestPositions.KIWIPETE);
+        int hashMove = Move.of(4, 3, null, false);
+        int killer = Move.of(14, 22, null, false);
+        int[] history = new int[2 * 64 * 64];
+        int favourite = Move.of(8, 16, null, false);
+        history[MovePicker.historyIndex(ChessGame.TeamColor.WHITE, favourite)] = 100;
+        MovePicker picker = new MovePicker();
+        picker.init(board, ChessGame.TeamColor.WHITE, new MoveGenerator(), hashMove,
+                new int[]{killer, Move.NONE}, history);
+
+        List<Integer> picked = pickAll(picker);
+        assertEquals(hashMove, picked.get(0));
+        int firstQuiet = 1;
+        while (Move.isCapture(picked.get(firstQuiet))) {
+            firstQuiet++;
+        }
+        assertTrue(firstQuiet > 1);
+        assertEquals(killer, picked.get(firstQuiet));
+        assertEquals(favourite, picked.get(firstQuiet + 1));
+        // captures after the quiet moves are the ones that lose material
+        for (int move : picked.subList(firstQuiet, picked.size())) {
+            if (Move.isCapture(move)) {
+                assertFalse(StaticExchange.isAtLeast(board, move, 0));
+            }
+        }
+        assertTrue(Move.isCapture(picked.get(picked.size() - 1)));
+    }
+
+    @Test
+    void quiescencePicksOnlyWinningCaptures() {
+        ChessBoard board = TestUtilities.loadBoard(TestPositions.KIWIPETE);
+        MovePicker picker = new MovePicker();
+        picker.initQuiescence(board, ChessGame.TeamColor.WHITE, new MoveGenerator());
+
+        assertFalse(picker.inCheck());
+        List<Integer> picked = pickAll(picker);
+        assertFalse(picked.isEmpty());
+        for (int move : picked) {
+            assertTrue(Move.isCapture(move));
+            assertTrue(StaticExchange.isAtLeast(board, move, 0));
+        }
+    }
+}
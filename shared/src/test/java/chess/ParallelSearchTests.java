@@ -0,0 +1,44 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+public class ParallelSearchTests {
+
+    @Test
+    void findsMateInOne() {
+        ChessGame game = game("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | | | |K| |
+                """, ChessGame.TeamColor.WHITE);
+
+        try (ParallelSearch search = new ParallelSearch(4)) {
+            SearchEngine.Result result = search.search(game, SearchEngine.Limits.ofDepth(4));
+
+            assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.move());
+            assertEquals(SearchEngine.MATE - 1, result.score());
+        }
+    }
+
+    @Test
+    void mainThreadStopsHelpers() {
+        try (ParallelSearch search = new ParallelSearch(4)) {
+            // helpers have no limits of their own, so the searches only return once the main search stops them
+            SearchEngine.Result first = search.search(new ChessGame(), SearchEngine.Limits.ofNodes(20_000));
+            SearchEngine.Result second = search.search(new ChessGame(), SearchEngine.Limits.ofDepth(3));
+
+            assertNotNull(first.move());
+            assertTrue(first.nodes() >= 20_000);
+            assertNotNull(second.move());
+            assertEquals(3, second.depth());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+/**
+ * Perft counts for reference positions. This rule set has no castling or en
+ * passant, so positions where those come up use counts with those moves left
+ * out; the rest match the published numbers.
+ */
+public class PerftTests {
+
+    private static void assertPerft(ChessGame game, long... expected) {
+        Perft perft = new Perft(game);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals(expected[depth - 1], perft.run(depth).nodes(), "perft(" + depth + ")");
+        }
+    }
+
+    @Test
+    void startingPosition() {
+        assertPerft(new ChessGame(), 20, 400, 8902, 197281);
+    }
+
+    @Test
+    void rookAndPawnEndgame() {
+        assertPerft(game("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.WHITE), 14, 191, 2810, 43087);
+    }
+
+    @Test
+    void kiwipete() {
+        assertPerft(game(TestPositions.KIWIPETE, ChessGame.TeamColor.WHITE), 46, 1865, 86585);
+    }
+
+    @Test
+    void promotionsAndChecks() {
+        assertPerft(game("""
+                |r| | | |k| | |r|
+                |P|p|p|p| |p|p|p|
+                | |b| | | |n|b|N|
+                |n|P| | | | | | |
+                |B|B|P| |P| | | |
+                |q| | | | |N| | |
+                |P|p| |P| | |P|P|
+                |R| | |Q| |R|K| |
+                """, ChessGame.TeamColor.WHITE), 6, 258, 9217);
+    }
+
+    @Test
+    void discoveredChecks() {
+        assertPerft(game("""
+                |r|n|b|q| |k| |r|
+                |p|p| |P|b|p|p|p|
+                | | |p| | | | | |
+                | | | | | | | | |
+                | | |B| | | | | |
+                | | | | | | | | |
+                |P|P|P| |N|n|P|P|
+                |R|N|B|Q|K| | |R|
+                """, ChessGame.TeamColor.WHITE), 43, 1452, 59922);
+    }
+
+    @Test
+    void symmetricalMiddlegame() {
+        assertPerft(game("""
+                |r| | | | |r|k| |
+                | |p|p| |q|p|p|p|
+                |p| |n|p| |n| | |
+                | | |b| |p| |B| |
+                | | |B| |P| |b| |
+                |P| |N|P| |N| | |
+                | |P|P| |Q|P|P|P|
+                |R| | | | |R|K| |
+                """, ChessGame.TeamColor.WHITE), 46, 2079, 89890);
+    }
+
+    @Test
+    void underpromotions() {
+        assertPerft(game(TestPositions.PROMOTIONS, ChessGame.TeamColor.BLACK), 24, 496, 9483, 182838);
+    }
+
+    @Test
+    void divideAddsUpToTotal() {
+        Perft perft = new Perft(new ChessGame());
+        Map<ChessMove, Long> divide = perft.divide(3);
+
+        assertEquals(20, divide.size());
+        assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600, divide.get(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    }
+
+    @Test
+    void gameIsNotChanged() {
+        ChessGame game = new ChessGame();
+        new Perft(game).run(3);
+
+        assertEquals(TestUtilities.defaultBoard(), game.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        ChessGame kiwipete = game(TestPositions.KIWIPETE, ChessGame.TeamColor.WHITE);
+
+        assertEquals(197281, new ParallelPerft(new ChessGame()).run(4).nodes());
+        assertEquals(86585, new ParallelPerft(kiwipete).run(3).nodes());
+        assertEquals(1, new ParallelPerft(new ChessGame()).run(0).nodes());
+    }
+
+    @Test
+    void parallelWithCache() {
+        ParallelPerft perft = new ParallelPerft(new ChessGame(), ForkJoinPool.commonPool(), 4);
+
+        assertEquals(197281, perft.run(4).nodes());
+        // later runs reuse subtree counts stored by earlier ones
+        assertEquals(4865351, perft.run(5).nodes());
+        assertEquals(4865351, perft.run(5).nodes());
+    }
+
+    @Test
+    void parallelDivide() {
+        Map<ChessMove, Long> divide = new ParallelPerft(new ChessGame()).divide(3);
+
+        assertEquals(new Perft(new ChessGame()).divide(3), divide);
+    }
+}
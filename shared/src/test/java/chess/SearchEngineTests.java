@@ -0,0 +1,119 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+public class SearchEngineTests {
+
+    @Test
+    void findsMateInOne() {
+        ChessGame game = game("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | | | |K| |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchEngine.Result result = new SearchEngine().search(game, SearchEngine.Limits.ofDepth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.move());
+        assertTrue(result.isMate());
+        assertEquals(SearchEngine.MATE - 1, result.score());
+    }
+
+    @Test
+    void capturesHangingQueen() {
+        ChessGame game = game("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R|K| | | |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchEngine.Result result = new SearchEngine().search(game, SearchEngine.Limits.ofDepth(3));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null), result.move());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    void seesRecaptureBeyondHorizon() {
+        ChessGame game = game("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q|K| | | |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchEngine.Result result = new SearchEngine().search(game, SearchEngine.Limits.ofDepth(1));
+
+        assertNotEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null), result.move());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    void noLegalMoves() {
+        ChessGame game = game("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+
+        SearchEngine.Result result = new SearchEngine().search(game, SearchEngine.Limits.ofDepth(3));
+
+        assertNull(result.move());
+        assertEquals(0, result.score());
+    }
+
+    @Test
+    void stopsAtNodeLimit() {
+        SearchEngine.Result result = new SearchEngine().search(new ChessGame(), SearchEngine.Limits.ofNodes(5_000));
+
+        assertNotNull(result.move());
+        assertTrue(result.depth() >= 1);
+        assertTrue(result.nodes() <= 5_000);
+    }
+
+    @Test
+    void stopsAtTimeLimit() {
+        long start = System.nanoTime();
+        SearchEngine.Result result = new SearchEngine().search(new ChessGame(), SearchEngine.Limits.ofMillis(100));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // no depth limit applies, so only the clock can have ended the search; the
+        // bound is loose so a busy machine does not fail it
+        assertTrue(elapsedMillis < 2_000, "search ran for " + elapsedMillis + " ms");
+        assertNotNull(result.move());
+        assertTrue(result.depth() > 0);
+        assertTrue(result.depth() < SearchEngine.MAX_PLY - 1);
+    }
+
+    @Test
+    void gameIsNotChanged() {
+        ChessGame game = new ChessGame();
+        new SearchEngine().search(game, SearchEngine.Limits.ofDepth(3));
+
+        assertEquals(TestUtilities.defaultBoard(), game.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+}
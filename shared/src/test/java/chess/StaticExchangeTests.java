@@ -0,0 +1,107 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticExchangeTests {
+
+    private static int move(ChessBoard board, String from, String to) {
+        int fromSquare = square(from);
+        int toSquare = square(to);
+        return Move.of(fromSquare, toSquare, null, board.pieceAt(toSquare) >= 0);
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    @Test
+    void pawnTakesDefendedKnight() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |n| | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        int capture = move(board, "e4", "d5");
+
+        // wins a knight for a pawn
+        assertTrue(StaticExchange.isAtLeast(board, capture, 220));
+        assertFalse(StaticExchange.isAtLeast(board, capture, 221));
+    }
+
+    @Test
+    void queenTakesDefendedPawn() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q|K| | | |
+                """);
+
+        assertFalse(StaticExchange.isAtLeast(board, move(board, "d1", "d5"), 0));
+    }
+
+    @Test
+    void batteryBehindTheCapturer() {
+        // the rook on d1 backs up the one on d2 through it, so the pawn falls
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | |r|k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R| | | | |
+                | | | |R|K| | | |
+                """);
+        int capture = move(board, "d2", "d5");
+
+        assertTrue(StaticExchange.isAtLeast(board, capture, 100));
+        assertFalse(StaticExchange.isAtLeast(board, capture, 101));
+    }
+
+    @Test
+    void defenderMayDeclineToRecapture() {
+        // taking back with the queen would lose it to the bishop, so black keeps the queen and loses the rook
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |r| | | | |
+                | | | | | | | | |
+                | | | | | |B| | |
+                | | | | | | | | |
+                |q| | |R|K| | | |
+                """);
+        int capture = move(board, "d1", "d5");
+
+        assertTrue(StaticExchange.isAtLeast(board, capture, 500));
+    }
+
+    @Test
+    void kingCannotRecaptureDefendedPiece() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |k| | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R| | | | |
+                | | | |R|K| | | |
+                """);
+
+        assertTrue(StaticExchange.isAtLeast(board, move(board, "d2", "d5"), 100));
+    }
+}
@@ -0,0 +1,48 @@
+package chess;
+
+import passoff.chess.TestUtilities;
+
+/**
+ * Positions several test classes share, in the board format of
+ * {@link TestUtilities#loadBoard(String)}.
+ */
+final class TestPositions {
+
+    private TestPositions() {
+    }
+
+    /**
+     * The "Kiwipete" perft position: many captures, pins and promotion threats
+     */
+    static final String KIWIPETE = """
+            |r| | | |k| | |r|
+            |p| |p|p|q|p|b| |
+            |b|n| | |p|n|p| |
+            | | | |P|N| | | |
+            | |p| | |P| | | |
+            | | |N| | |Q| |p|
+            |P|P|P|B|B|P|P|P|
+            |R| | | |K| | |R|
+            """;
+
+    /**
+     * Pawns one step from promoting on both sides, with pieces to capture on the promotion squares
+     */
+    static final String PROMOTIONS = """
+            |n| |n| | | | | |
+            |P|P|P|k| | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | |K|p|p|p|
+            | | | | | |N| |N|
+            """;
+
+    static ChessGame game(String boardText, ChessGame.TeamColor teamTurn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(boardText));
+        game.setTeamTurn(teamTurn);
+        return game;
+    }
+}
@@ -0,0 +1,117 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    private static final int MOVE = Move.of(12, 28, null, false);
+
+    @Test
+    void storeThenProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(0x1234_5678_9ABCL, MOVE, -250, 7, TranspositionTable.BOUND_LOWER);
+
+        long entry = table.probe(0x1234_5678_9ABCL);
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(-250, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(entry));
+        assertEquals(0, table.probe(0x1234_5678_9ABDL));
+    }
+
+    @Test
+    void sizeIsPowerOfTwo() {
+        TranspositionTable table = new TranspositionTable(3);
+
+        assertEquals(Integer.highestOneBit(table.capacity()), table.capacity());
+        assertTrue((long) table.capacity() * 2 * Long.BYTES <= 3 << 20);
+    }
+
+    @Test
+    void keepsMoveWhenStoringWithout() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, MOVE, 10, 3, TranspositionTable.BOUND_EXACT);
+        table.store(42, Move.NONE, 5, 4, TranspositionTable.BOUND_UPPER);
+
+        long entry = table.probe(42);
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(4, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    void replacesShallowestEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.capacity() / 2;
+        // three keys landing in the same two-entry bucket
+        long deep = 5;
+        long shallow = 5 + bucketStride;
+        long incoming = 5 + 2 * bucketStride;
+        table.store(deep, MOVE, 0, 10, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, MOVE, 0, 2, TranspositionTable.BOUND_EXACT);
+        table.store(incoming, MOVE, 0, 4, TranspositionTable.BOUND_EXACT);
+
+        assertNotEquals(0, table.probe(deep));
+        assertEquals(0, table.probe(shallow));
+        assertNotEquals(0, table.probe(incoming));
+    }
+
+    @Test
+    void replacesOldEntriesFirst() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.capacity() / 2;
+        long old = 9;
+        long recent = 9 + bucketStride;
+        table.store(old, MOVE, 0, 6, TranspositionTable.BOUND_EXACT);
+        for (int i = 0; i < 3; i++) {
+            table.newSearch();
+        }
+        table.store(recent, MOVE, 0, 3, TranspositionTable.BOUND_EXACT);
+        table.store(9 + 2 * bucketStride, MOVE, 0, 3, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(0, table.probe(old));
+        assertNotEquals(0, table.probe(recent));
+    }
+
+    @Test
+    void concurrentWritersNeverMixEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.capacity() / 2;
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200_000; i++) {
+                        // a handful of keys fighting over one bucket, each storing a score derived from itself
+                        long key = 3 + random.nextInt(8) * bucketStride;
+                        int score = (int) (key % 30_000);
+                        table.store(key, MOVE, score, random.nextInt(20), TranspositionTable.BOUND_EXACT);
+                        long entry = table.probe(key);
+                        if (entry != 0) {
+                            assertEquals(score, TranspositionTable.score(entry));
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), failures.toString());
+    }
+}
@@ -0,0 +1,110 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.TestPositions.game;
+
+public class ZobristTests {
+
+    // pawns one step from promoting on both sides, with pieces to capture on the promotion squares
+    private static final String PROMOTIONS = """
+            |n| |n| |r| | | |
+            |P|P|P|k| |p| | |
+            | | | | | | | | |
+            | | | |p| | | | |
+            | | | | |P| | | |
+            | | | | | | | | |
+            | | |P| |K|p|p|p|
+            | | | |R| |N| |N|
+            """;
+
+    /**
+     * @return the key of a board built from scratch with the same pieces
+     */
+    private static long rebuiltKey(ChessBoard board) {
+        ChessBoard fresh = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null) {
+                    fresh.addPiece(position, piece);
+                }
+            }
+        }
+        return fresh.getZobristKey();
+    }
+
+    @Test
+    void incrementalKeyMatchesRebuiltBoard() {
+        ChessBoard board = TestUtilities.loadBoard(PROMOTIONS);
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        SplittableRandom random = new SplittableRandom(6);
+        ChessGame.TeamColor color = ChessGame.TeamColor.WHITE;
+        int made = 0;
+        int captures = 0;
+        int promotions = 0;
+        int unmakes = 0;
+
+        for (int step = 0; step < 2_000; step++) {
+            moves.clear();
+            generator.generate(board, color, moves);
+            // back up a ply now and then, and always when stuck
+            if (made > 0 && (moves.isEmpty() || random.nextInt(3) == 0)) {
+                board.unmakeMove();
+                made--;
+                unmakes++;
+            } else if (moves.isEmpty()) {
+                board = TestUtilities.loadBoard(PROMOTIONS);
+            } else {
+                int move = moves.get(random.nextInt(moves.size()));
+                captures += Move.isCapture(move) ? 1 : 0;
+                promotions += Move.promotion(move) != null ? 1 : 0;
+                board.makeMove(move);
+                made++;
+            }
+            color = made % 2 == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            assertEquals(rebuiltKey(board), board.getZobristKey(), "step " + step);
+        }
+
+        assertTrue(captures > 0);
+        assertTrue(promotions > 0);
+        assertTrue(unmakes > 0);
+    }
+
+    @Test
+    void transpositionsShareAKey() throws InvalidMoveException {
+        ChessGame knightsFirst = new ChessGame();
+        knightsFirst.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        knightsFirst.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        knightsFirst.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        knightsFirst.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+
+        ChessGame otherOrder = new ChessGame();
+        otherOrder.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        otherOrder.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        otherOrder.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        otherOrder.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        assertEquals(knightsFirst.getBoard(), otherOrder.getBoard());
+        assertEquals(knightsFirst.getZobristKey(), otherOrder.getZobristKey());
+        assertNotEquals(new ChessGame().getZobristKey(), knightsFirst.getZobristKey());
+    }
+
+    @Test
+    void keyDependsOnSideToMove() {
+        ChessGame game = game(PROMOTIONS, ChessGame.TeamColor.WHITE);
+        long whiteToMove = game.getZobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        long blackToMove = game.getZobristKey();
+
+        assertNotEquals(whiteToMove, blackToMove);
+        // the board's own key leaves the turn out
+        assertEquals(whiteToMove, game.getBoard().getZobristKey());
+    }
+}